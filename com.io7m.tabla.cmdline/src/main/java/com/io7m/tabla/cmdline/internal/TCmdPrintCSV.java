@@ -74,7 +74,37 @@ public final class TCmdPrintCSV implements QCommandType
      * Pretty printed frames with ASCII characters.
      */
 
-    FRAMED_ASCII
+    FRAMED_ASCII,
+
+    /**
+     * GitHub-flavoured Markdown.
+     */
+
+    MARKDOWN,
+
+    /**
+     * An HTML table.
+     */
+
+    HTML,
+
+    /**
+     * Tab-separated values.
+     */
+
+    TSV,
+
+    /**
+     * One JSON object per row.
+     */
+
+    JSON_LINES,
+
+    /**
+     * Aligned columns without frames.
+     */
+
+    FRAMELESS
   }
 
   private static final QParameterNamed1<Path> INPUT =
@@ -236,6 +266,11 @@ public final class TCmdPrintCSV implements QCommandType
       case CSV -> Tabla.csvRenderer();
       case FRAMED_UNICODE -> Tabla.framedUnicodeRenderer();
       case FRAMED_ASCII -> Tabla.framedASCIIRenderer();
+      case MARKDOWN -> Tabla.markdownRenderer();
+      case HTML -> Tabla.htmlRenderer();
+      case TSV -> Tabla.tsvRenderer();
+      case JSON_LINES -> Tabla.jsonLinesRenderer();
+      case FRAMELESS -> Tabla.framelessRendererUnderlined();
     };
   }
 
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * The configuration for CSV renderers. Output is produced according to
+ * RFC 4180: fields that are quoted are surrounded by double quotes, and any
+ * double quotes within quoted fields are escaped by doubling them.
+ *
+ * @param delimiter       The field delimiter
+ * @param quoting         The quoting policy
+ * @param recordSeparator The separator written after each record when
+ *                        rendering to a sink
+ */
+
+public record TCSVConfiguration(
+  char delimiter,
+  TCSVQuoting quoting,
+  String recordSeparator)
+{
+  private static final TCSVConfiguration DEFAULTS =
+    new TCSVConfiguration(',', TCSVQuoting.QUOTE_ALWAYS, "\r\n");
+
+  /**
+   * The configuration for CSV renderers.
+   *
+   * @param delimiter       The field delimiter
+   * @param quoting         The quoting policy
+   * @param recordSeparator The separator written after each record when
+   *                        rendering to a sink
+   */
+
+  public TCSVConfiguration
+  {
+    Objects.requireNonNull(quoting, "quoting");
+    Objects.requireNonNull(recordSeparator, "recordSeparator");
+
+    Preconditions.checkPreconditionV(
+      delimiter != '"' && delimiter != '\r' && delimiter != '\n',
+      "Delimiter U+%04X must not be a quote or line break",
+      Integer.valueOf(delimiter)
+    );
+  }
+
+  /**
+   * @return The default configuration: comma-delimited, with every field
+   * quoted, and records separated by CRLF
+   */
+
+  public static TCSVConfiguration defaults()
+  {
+    return DEFAULTS;
+  }
+
+  /**
+   * @param newDelimiter The field delimiter
+   *
+   * @return This configuration with the given delimiter
+   */
+
+  public TCSVConfiguration withDelimiter(
+    final char newDelimiter)
+  {
+    return new TCSVConfiguration(
+      newDelimiter,
+      this.quoting,
+      this.recordSeparator
+    );
+  }
+
+  /**
+   * @param newQuoting The quoting policy
+   *
+   * @return This configuration with the given quoting policy
+   */
+
+  public TCSVConfiguration withQuoting(
+    final TCSVQuoting newQuoting)
+  {
+    return new TCSVConfiguration(
+      this.delimiter,
+      newQuoting,
+      this.recordSeparator
+    );
+  }
+
+  /**
+   * @param newRecordSeparator The record separator
+   *
+   * @return This configuration with the given record separator
+   */
+
+  public TCSVConfiguration withRecordSeparator(
+    final String newRecordSeparator)
+  {
+    return new TCSVConfiguration(
+      this.delimiter,
+      this.quoting,
+      newRecordSeparator
+    );
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+/**
+ * The manner in which a table builder stores the content of cells.
+ */
+
+public enum TCellStorage
+{
+  /**
+   * Each cell is stored as a separate string, and built tables hold a cell
+   * object per cell that caches its wrapped content. This is the fastest
+   * mode for tables that are rendered repeatedly.
+   */
+
+  OBJECTS,
+
+  /**
+   * The content of text cells is copied into large shared byte arrays,
+   * encoded as ISO-8859-1 where possible and UTF-16 otherwise, and each cell
+   * is addressed by a single {@code long}. Built tables hold no per-cell
+   * objects; strings are created and content is wrapped only when a cell is
+   * read, and the results are not cached. This keeps heap usage close to
+   * the size of the content for very large tables, at the cost of
+   * rewrapping content each time a table is rendered. The content of a
+   * single cell is limited to 4 MiB when encoded. Views of tables built in
+   * this mode retain their column widths.
+   */
+
+  COMPACT
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+import java.util.Objects;
+
+/**
+ * The terminal style applied to a cell. Styles are applied at render time
+ * and never affect the layout of a table.
+ *
+ * @param foreground The foreground colour
+ * @param background The background colour
+ * @param bold       {@code true} if text should be bold
+ */
+
+public record TCellStyle(
+  TANSIColor foreground,
+  TANSIColor background,
+  boolean bold)
+{
+  private static final TCellStyle NONE =
+    new TCellStyle(TANSIColor.DEFAULT, TANSIColor.DEFAULT, false);
+
+  /**
+   * The terminal style applied to a cell.
+   *
+   * @param foreground The foreground colour
+   * @param background The background colour
+   * @param bold       {@code true} if text should be bold
+   */
+
+  public TCellStyle
+  {
+    Objects.requireNonNull(foreground, "foreground");
+    Objects.requireNonNull(background, "background");
+  }
+
+  /**
+   * @return The style that leaves text unchanged
+   */
+
+  public static TCellStyle none()
+  {
+    return NONE;
+  }
+
+  /**
+   * @param newForeground The foreground colour
+   *
+   * @return This style with the given foreground colour
+   */
+
+  public TCellStyle withForeground(
+    final TANSIColor newForeground)
+  {
+    return new TCellStyle(newForeground, this.background, this.bold);
+  }
+
+  /**
+   * @param newBackground The background colour
+   *
+   * @return This style with the given background colour
+   */
+
+  public TCellStyle withBackground(
+    final TANSIColor newBackground)
+  {
+    return new TCellStyle(this.foreground, newBackground, this.bold);
+  }
+
+  /**
+   * @param newBold {@code true} if text should be bold
+   *
+   * @return This style with the given boldness
+   */
+
+  public TCellStyle withBold(
+    final boolean newBold)
+  {
+    return new TCellStyle(this.foreground, this.background, newBold);
+  }
+}
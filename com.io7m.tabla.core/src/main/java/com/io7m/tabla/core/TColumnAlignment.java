@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+/**
+ * The horizontal alignment of content within a column.
+ */
+
+public enum TColumnAlignment
+{
+  /**
+   * Content is aligned to the left edge of the column.
+   */
+
+  LEFT,
+
+  /**
+   * Content is centered within the column.
+   */
+
+  CENTER,
+
+  /**
+   * Content is aligned to the right edge of the column.
+   */
+
+  RIGHT,
+
+  /**
+   * Content is aligned such that the decimal points of numbers in the
+   * column are placed in the same position. Content that does not contain
+   * a decimal point is treated as a number with an empty fractional part.
+   */
+
+  DECIMAL
+}
@@ -70,6 +70,26 @@ public record TColumnWidthConstraint(
     );
   }
 
+  /**
+   * Derive a constraint that requires a table column to be at least the
+   * length of the value at the given percentile of the lengths of the
+   * values in the column. Longer values are wrapped.
+   *
+   * @param percentile The percentile in the range {@code [0, 100]}
+   *
+   * @return A constraint
+   */
+
+  public static TColumnWidthConstraint atLeastContentPercentile(
+    final double percentile)
+  {
+    return new TColumnWidthConstraint(
+      TColumnWidthConstraintMinimumFitContentPercentile.fitContentPercentile(
+        percentile),
+      TColumnWidthConstraintMaximumAny.any()
+    );
+  }
+
   /**
    * Derive a constraint that requires a table column to be at least the
    * length of the longest value in any row of the column, or the column
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+/**
+ * A constraint that requires that the width of a column must be at least
+ * large enough to fit the content of the given percentile of the rows of
+ * the column. Content longer than this is wrapped, so that a small number
+ * of unusually long values do not widen every row of the table.
+ *
+ * @param percentile The percentile in the range {@code [0, 100]}
+ */
+
+public record TColumnWidthConstraintMinimumFitContentPercentile(
+  double percentile)
+  implements TColumnWidthConstraintMinimumType
+{
+  /**
+   * A constraint that requires that the width of a column must be at least
+   * large enough to fit the content of the given percentile of the rows of
+   * the column.
+   *
+   * @param percentile The percentile in the range {@code [0, 100]}
+   */
+
+  public TColumnWidthConstraintMinimumFitContentPercentile
+  {
+    Preconditions.checkPreconditionV(
+      percentile >= 0.0 && percentile <= 100.0,
+      "Percentile %f must be in the range [0, 100]",
+      Double.valueOf(percentile)
+    );
+  }
+
+  /**
+   * @param percentile The percentile in the range {@code [0, 100]}
+   *
+   * @return A constraint that requires that the width of a column must be
+   * at least large enough to fit the content of the given percentile of the
+   * rows of the column
+   */
+
+  public static TColumnWidthConstraintMinimumFitContentPercentile fitContentPercentile(
+    final double percentile)
+  {
+    return new TColumnWidthConstraintMinimumFitContentPercentile(percentile);
+  }
+}
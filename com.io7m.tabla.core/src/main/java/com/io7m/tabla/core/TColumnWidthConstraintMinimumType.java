@@ -25,6 +25,7 @@ public sealed interface TColumnWidthConstraintMinimumType
   permits TColumnWidthConstraintMinimumAny,
   TColumnWidthConstraintMinimumAtLeast,
   TColumnWidthConstraintMinimumFitContent,
+  TColumnWidthConstraintMinimumFitContentPercentile,
   TColumnWidthConstraintMinimumFitContentOrHeader,
   TColumnWidthConstraintMinimumFitHeader
 {
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A format that displays floating point numbers with a fixed number of
+ * digits after the decimal point. Values are rounded half away from zero
+ * from their decimal representation, as given by
+ * {@link Double#toString(double)}, so that {@code 1.005} is displayed as
+ * {@code 1.01} with two digits. Integers are displayed without a fractional
+ * part. Display lengths are computed arithmetically for all finite values of
+ * reasonable magnitude that are not close to a rounding tie.
+ *
+ * @param fractionDigits The number of digits after the decimal point
+ */
+
+public record TNumberFormatFixed(
+  int fractionDigits)
+  implements TNumberFormatType
+{
+  private static final int MAXIMUM_FRACTION_DIGITS = 15;
+
+  /**
+   * The largest scaled magnitude that is formatted without falling back to
+   * {@link BigDecimal}.
+   */
+
+  private static final double MAXIMUM_SCALED = 0x1p53;
+
+  /**
+   * The distance from a rounding tie, in units in the last place of the
+   * scaled value, within which rounding is decided in decimal. The scaled
+   * value differs from the scaled decimal representation of the value by
+   * less than two units in the last place.
+   */
+
+  private static final double TIE_TOLERANCE_ULPS = 4.0;
+
+  private static final long[] POWERS_OF_TEN =
+    createPowersOfTen();
+
+  /**
+   * A format that displays floating point numbers with a fixed number of
+   * digits after the decimal point.
+   *
+   * @param fractionDigits The number of digits after the decimal point
+   */
+
+  public TNumberFormatFixed
+  {
+    Preconditions.checkPreconditionV(
+      fractionDigits >= 0 && fractionDigits <= MAXIMUM_FRACTION_DIGITS,
+      "Fraction digits %d must be in the range [0, %d]",
+      Integer.valueOf(fractionDigits),
+      Integer.valueOf(MAXIMUM_FRACTION_DIGITS)
+    );
+  }
+
+  private static long[] createPowersOfTen()
+  {
+    final var powers = new long[MAXIMUM_FRACTION_DIGITS + 1];
+    powers[0] = 1L;
+    for (int index = 1; index < powers.length; ++index) {
+      powers[index] = powers[index - 1] * 10L;
+    }
+    return powers;
+  }
+
+  @Override
+  public int lengthOf(
+    final long value)
+  {
+    return TNumberFormatPlain.decimalLength(value);
+  }
+
+  @Override
+  public int lengthOf(
+    final double value)
+  {
+    final var scaled = this.scaled(value);
+    if (Double.isNaN(scaled)) {
+      return this.format(value).length();
+    }
+
+    final var rounded = (long) scaled;
+    final var integer = Math.abs(rounded) / POWERS_OF_TEN[this.fractionDigits];
+    final var sign = rounded < 0L ? 1 : 0;
+    return sign
+           + TNumberFormatPlain.decimalLength(integer)
+           + this.fractionWidthOf(value);
+  }
+
+  @Override
+  public int fractionWidthOf(
+    final double value)
+  {
+    if (!Double.isFinite(value) || this.fractionDigits == 0) {
+      return 0;
+    }
+    return this.fractionDigits + 1;
+  }
+
+  @Override
+  public String format(
+    final long value)
+  {
+    return Long.toString(value);
+  }
+
+  @Override
+  public String format(
+    final double value)
+  {
+    if (!Double.isFinite(value)) {
+      return Double.toString(value);
+    }
+
+    final var scaled = this.scaled(value);
+    if (Double.isNaN(scaled)) {
+      return BigDecimal.valueOf(value)
+        .setScale(this.fractionDigits, RoundingMode.HALF_UP)
+        .toPlainString();
+    }
+
+    final var rounded = (long) scaled;
+    final var power = POWERS_OF_TEN[this.fractionDigits];
+    final var magnitude = Math.abs(rounded);
+    final var text = new StringBuilder(24);
+    if (rounded < 0L) {
+      text.append('-');
+    }
+    text.append(magnitude / power);
+    if (this.fractionDigits > 0) {
+      text.append('.');
+      final var fraction = Long.toString(magnitude % power);
+      for (int index = fraction.length(); index < this.fractionDigits; ++index) {
+        text.append('0');
+      }
+      text.append(fraction);
+    }
+    return text.toString();
+  }
+
+  /**
+   * @return The value scaled by the number of fraction digits and rounded
+   * half away from zero, or NaN if the value cannot be scaled exactly or is
+   * too close to a rounding tie for binary arithmetic to agree with
+   * rounding its decimal representation
+   */
+
+  private double scaled(
+    final double value)
+  {
+    final var scaled = value * POWERS_OF_TEN[this.fractionDigits];
+    if (!Double.isFinite(scaled) || Math.abs(scaled) >= MAXIMUM_SCALED) {
+      return Double.NaN;
+    }
+
+    final var magnitude = Math.abs(scaled);
+    final var integer = Math.floor(magnitude);
+    final var fraction = magnitude - integer;
+    final var tolerance = TIE_TOLERANCE_ULPS * Math.ulp(magnitude);
+    if (Math.abs(fraction - 0.5) <= tolerance) {
+      return Double.NaN;
+    }
+    return Math.signum(scaled) * (fraction > 0.5 ? integer + 1.0 : integer);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+/**
+ * A format that displays numbers as {@link Long#toString(long)} and
+ * {@link Double#toString(double)} do. The lengths of integers are computed
+ * arithmetically; the lengths of floating point numbers require formatting,
+ * and so {@link TNumberFormatFixed} should be preferred for columns of
+ * floating point numbers.
+ */
+
+public record TNumberFormatPlain()
+  implements TNumberFormatType
+{
+  private static final TNumberFormatPlain INSTANCE =
+    new TNumberFormatPlain();
+
+  /**
+   * @return A format that displays numbers as {@link Long#toString(long)}
+   * and {@link Double#toString(double)} do
+   */
+
+  public static TNumberFormatPlain plain()
+  {
+    return INSTANCE;
+  }
+
+  static int decimalLength(
+    final long value)
+  {
+    if (value == Long.MIN_VALUE) {
+      return 20;
+    }
+
+    var length = value < 0L ? 2 : 1;
+    var remaining = Math.abs(value);
+    while (remaining >= 10L) {
+      remaining /= 10L;
+      ++length;
+    }
+    return length;
+  }
+
+  @Override
+  public int lengthOf(
+    final long value)
+  {
+    return decimalLength(value);
+  }
+
+  @Override
+  public int lengthOf(
+    final double value)
+  {
+    return Double.toString(value).length();
+  }
+
+  @Override
+  public int fractionWidthOf(
+    final double value)
+  {
+    final var text = Double.toString(value);
+    final var point = text.indexOf('.');
+    if (point < 0) {
+      return 0;
+    }
+    return text.length() - point;
+  }
+
+  @Override
+  public String format(
+    final long value)
+  {
+    return Long.toString(value);
+  }
+
+  @Override
+  public String format(
+    final double value)
+  {
+    return Double.toString(value);
+  }
+}
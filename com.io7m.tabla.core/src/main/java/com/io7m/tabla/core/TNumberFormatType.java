@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+/**
+ * The type of number formats. A number format determines how numeric cells
+ * are displayed, and can determine the display length of a number without
+ * producing its text, so that numeric cells need not be formatted until
+ * they are rendered.
+ */
+
+public sealed interface TNumberFormatType
+  permits TNumberFormatFixed, TNumberFormatPlain
+{
+  /**
+   * @param value The value
+   *
+   * @return The length of the formatted value
+   */
+
+  int lengthOf(long value);
+
+  /**
+   * @param value The value
+   *
+   * @return The length of the formatted value
+   */
+
+  int lengthOf(double value);
+
+  /**
+   * @param value The value
+   *
+   * @return The width of the fractional part of the formatted value,
+   * including the decimal point, or zero if there is no fractional part
+   */
+
+  int fractionWidthOf(double value);
+
+  /**
+   * @param value The value
+   *
+   * @return The formatted value
+   */
+
+  String format(long value);
+
+  /**
+   * @param value The value
+   *
+   * @return The formatted value
+   */
+
+  String format(double value);
+
+  /**
+   * @return A format that displays numbers as {@link Long#toString(long)}
+   * and {@link Double#toString(double)} do
+   */
+
+  static TNumberFormatPlain plain()
+  {
+    return TNumberFormatPlain.plain();
+  }
+
+  /**
+   * @param fractionDigits The number of digits after the decimal point
+   *
+   * @return A format that displays floating point numbers with a fixed
+   * number of digits after the decimal point
+   */
+
+  static TNumberFormatFixed fixed(
+    final int fractionDigits)
+  {
+    return new TNumberFormatFixed(fractionDigits);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+/**
+ * The manner in which cell content is compared when sorting rows.
+ */
+
+public enum TSortComparison
+{
+  /**
+   * Content is compared lexicographically by character.
+   */
+
+  LEXICAL,
+
+  /**
+   * Content is compared as numbers. Numeric cells are compared by value
+   * without being formatted. Text cells are parsed as decimal numbers, and
+   * content that cannot be parsed is ordered after all numbers in ascending
+   * order.
+   */
+
+  NUMERIC,
+
+  /**
+   * Content is compared lexicographically, except that runs of decimal
+   * digits are compared by their numeric value, so that {@code "file9"}
+   * is ordered before {@code "file10"}.
+   */
+
+  NATURAL
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * A key by which the rows of a table are sorted.
+ *
+ * @param column     The index of the column
+ * @param comparison The manner in which the column content is compared
+ * @param descending {@code true} if rows are sorted in descending order
+ */
+
+public record TSortKey(
+  int column,
+  TSortComparison comparison,
+  boolean descending)
+{
+  /**
+   * A key by which the rows of a table are sorted.
+   *
+   * @param column     The index of the column
+   * @param comparison The manner in which the column content is compared
+   * @param descending {@code true} if rows are sorted in descending order
+   */
+
+  public TSortKey
+  {
+    Preconditions.checkPreconditionV(
+      column >= 0,
+      "Column index %d must be non-negative",
+      Integer.valueOf(column)
+    );
+    Objects.requireNonNull(comparison, "comparison");
+  }
+
+  /**
+   * @param column     The index of the column
+   * @param comparison The manner in which the column content is compared
+   *
+   * @return A key that sorts rows in ascending order
+   */
+
+  public static TSortKey ascending(
+    final int column,
+    final TSortComparison comparison)
+  {
+    return new TSortKey(column, comparison, false);
+  }
+
+  /**
+   * @param column     The index of the column
+   * @param comparison The manner in which the column content is compared
+   *
+   * @return A key that sorts rows in descending order
+   */
+
+  public static TSortKey descending(
+    final int column,
+    final TSortComparison comparison)
+  {
+    return new TSortKey(column, comparison, true);
+  }
+}
@@ -16,6 +16,8 @@
 
 package com.io7m.tabla.core;
 
+import java.util.List;
+
 /**
  * The type of mutable table builders.
  */
@@ -25,17 +27,61 @@ public interface TTableBuilderType
   /**
    * Declare a new column.
    *
-   * @param name       The column name/header text
-   * @param constraint The width constraint
+   * @param name         The column name/header text
+   * @param constraint   The width constraint
+   * @param alignment    The alignment of the column's content
+   * @param numberFormat The format of numeric cells in the column
    *
    * @return this
    */
 
   TTableBuilderType declareColumn(
     String name,
-    TColumnWidthConstraint constraint
+    TColumnWidthConstraint constraint,
+    TColumnAlignment alignment,
+    TNumberFormatType numberFormat
   );
 
+  /**
+   * Declare a new column. Numeric cells in the column use the
+   * {@link TNumberFormatType#plain()} format.
+   *
+   * @param name       The column name/header text
+   * @param constraint The width constraint
+   * @param alignment  The alignment of the column's content
+   *
+   * @return this
+   */
+
+  default TTableBuilderType declareColumn(
+    final String name,
+    final TColumnWidthConstraint constraint,
+    final TColumnAlignment alignment)
+  {
+    return this.declareColumn(
+      name,
+      constraint,
+      alignment,
+      TNumberFormatType.plain()
+    );
+  }
+
+  /**
+   * Declare a new left-aligned column.
+   *
+   * @param name       The column name/header text
+   * @param constraint The width constraint
+   *
+   * @return this
+   */
+
+  default TTableBuilderType declareColumn(
+    final String name,
+    final TColumnWidthConstraint constraint)
+  {
+    return this.declareColumn(name, constraint, TColumnAlignment.LEFT);
+  }
+
   /**
    * Declare a new column. The column has a width constraint that sizes it
    * to at least the width of the header text.
@@ -52,6 +98,9 @@ public interface TTableBuilderType
   }
 
   /**
+   * Build a table from the current rows. The builder is not modified, and
+   * may be called repeatedly, for example after {@link #clearRows()}.
+   *
    * @return An immutable table based on the given values
    *
    * @throws TException On errors
@@ -60,6 +109,73 @@ public interface TTableBuilderType
   TTableType build()
     throws TException;
 
+  /**
+   * Build a table without solving any width constraints. Every column in the
+   * resulting table has a width of zero, and so the table is only useful
+   * with renderers that consume raw content, such as the CSV, TSV, JSON
+   * Lines, Markdown, and HTML renderers. The table width constraint and
+   * column width constraints are ignored.
+   *
+   * @return An immutable table based on the given values
+   *
+   * @throws TException On errors
+   */
+
+  TTableType buildUnformatted()
+    throws TException;
+
+  /**
+   * Build a table using the column widths of an existing layout. No
+   * constraints are solved; the cells are only wrapped to the widths given
+   * by the layout. If {@code fit} is {@link TConstraintHardness#HARD_CONSTRAINT},
+   * the build fails if any cell is wider than its column. Otherwise, such
+   * cells are wrapped onto multiple lines.
+   *
+   * @param layout The layout
+   * @param fit    Whether cells must fit within their columns
+   *
+   * @return An immutable table based on the given values
+   *
+   * @throws TException If the layout does not match the declared columns,
+   *                    or a cell does not fit a column with a hard fit
+   */
+
+  TTableType buildWithLayout(
+    TTableLayout layout,
+    TConstraintHardness fit)
+    throws TException;
+
+  /**
+   * Build a table using the column widths of an existing layout, wrapping
+   * any cells that are wider than their columns.
+   *
+   * @param layout The layout
+   *
+   * @return An immutable table based on the given values
+   *
+   * @throws TException If the layout does not match the declared columns
+   *
+   * @see #buildWithLayout(TTableLayout, TConstraintHardness)
+   */
+
+  default TTableType buildWithLayout(
+    final TTableLayout layout)
+    throws TException
+  {
+    return this.buildWithLayout(layout, TConstraintHardness.SOFT_CONSTRAINT);
+  }
+
+  /**
+   * Remove all rows from the builder. The column declarations and the width
+   * constraint are retained, and the builder's internal storage is reused
+   * for subsequent rows. Row builders returned by {@link #addRow()} before
+   * this call must not be used afterwards.
+   *
+   * @return this
+   */
+
+  TTableBuilderType clearRows();
+
   /**
    * Set the table width constraint.
    *
@@ -78,4 +194,54 @@ public interface TTableBuilderType
    */
 
   TTableRowBuilderType addRow();
+
+  /**
+   * Add a row to the table. The number of cells is validated once for the
+   * whole row, which avoids the per-cell overhead of {@link #addRow()}.
+   *
+   * @param cells The row cells
+   *
+   * @return this
+   *
+   * @throws TException If the row has too few or too many cells
+   */
+
+  TTableBuilderType addRow(String... cells)
+    throws TException;
+
+  /**
+   * Add a row to the table. The number of cells is validated once for the
+   * whole row, which avoids the per-cell overhead of {@link #addRow()}.
+   *
+   * @param cells The row cells
+   *
+   * @return this
+   *
+   * @throws TException If the row has too few or too many cells
+   */
+
+  TTableBuilderType addRow(List<String> cells)
+    throws TException;
+
+  /**
+   * Add rows to the table.
+   *
+   * @param rows The rows
+   *
+   * @return this
+   *
+   * @throws TException If any row has too few or too many cells
+   *
+   * @see #addRow(List)
+   */
+
+  default TTableBuilderType addRows(
+    final Iterable<? extends List<String>> rows)
+    throws TException
+  {
+    for (final var row : rows) {
+      this.addRow(row);
+    }
+    return this;
+  }
 }
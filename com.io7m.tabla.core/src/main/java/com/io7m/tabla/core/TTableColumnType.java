@@ -36,8 +36,18 @@ public interface TTableColumnType
   String headerContentRaw();
 
   /**
-   * @return The formatted column header text (may be truncated, ellipsized, or padded)
+   * @return The formatted column header text (may be truncated or
+   * ellipsized, but is not padded)
    */
 
   String headerContentFormatted();
+
+  /**
+   * @return The alignment applied to the column's content when rendering
+   */
+
+  default TColumnAlignment alignment()
+  {
+    return TColumnAlignment.LEFT;
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+import java.io.IOException;
+
+/**
+ * A renderer that updates a previously rendered table in place on a
+ * terminal, writing only the lines that have changed.
+ *
+ * <p>Renderers are stateless and may be shared between threads.</p>
+ */
+
+public interface TTableDifferentialRendererType
+{
+  /**
+   * Write the changes required to transform the rendering of
+   * {@code previous} into the rendering of {@code next}. The cursor is
+   * assumed to be at the start of the line immediately following the
+   * previous rendering, as it is after
+   * {@link TTableRendererType#render(TTableType, Appendable)}, and is left
+   * at the start of the line immediately following the new rendering.
+   *
+   * <p>Lines are addressed using relative cursor movement escape sequences.
+   * If the tables do not share the same layout, the whole table is
+   * redrawn.</p>
+   *
+   * @param previous The previously rendered table
+   * @param next     The table to be rendered
+   * @param output   The output
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void renderChanges(
+    TTableType previous,
+    TTableType next,
+    Appendable output)
+    throws IOException;
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A solved table layout: the width of every column. A layout can be taken
+ * from a table that has already been built, or given explicitly, and then
+ * applied to new data with
+ * {@link TTableBuilderType#buildWithLayout(TTableLayout, TConstraintHardness)}
+ * without solving any constraints.
+ *
+ * @param columnWidths The width of each column
+ */
+
+public record TTableLayout(
+  List<Integer> columnWidths)
+{
+  /**
+   * A solved table layout.
+   *
+   * @param columnWidths The width of each column
+   */
+
+  public TTableLayout
+  {
+    columnWidths = List.copyOf(columnWidths);
+    for (final var width : columnWidths) {
+      Preconditions.checkPreconditionV(
+        width.intValue() >= 0,
+        "Column width %d must be non-negative",
+        width
+      );
+    }
+  }
+
+  /**
+   * @param table The table
+   *
+   * @return The layout of the given table
+   */
+
+  public static TTableLayout of(
+    final TTableType table)
+  {
+    final var columnCount = table.columnCount();
+    final var widths = new ArrayList<Integer>(columnCount);
+    for (int index = 0; index < columnCount; ++index) {
+      widths.add(Integer.valueOf(table.columnOf(index).width()));
+    }
+    return new TTableLayout(widths);
+  }
+
+  /**
+   * @return The number of columns in the layout
+   */
+
+  public int columnCount()
+  {
+    return this.columnWidths.size();
+  }
+
+  /**
+   * @return The sum of all column widths
+   */
+
+  public int contentWidth()
+  {
+    var sum = 0;
+    for (final var width : this.columnWidths) {
+      sum += width.intValue();
+    }
+    return sum;
+  }
+}
@@ -17,10 +17,19 @@
 
 package com.io7m.tabla.core;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
  * The type of table renderers.
+ *
+ * <p>Renderers are thread-safe: a single renderer instance can be shared
+ * between any number of threads, and can be used to render any number of
+ * tables concurrently, without external synchronization. Most renderers
+ * are stateless, and allocate all scratch space required during rendering
+ * per call. Memoising renderers, such as those returned by
+ * {@link Tabla#memoisedRenderer(TTableRendererType)}, hold a cache of
+ * rendered output that is shared between callers.</p>
  */
 
 public interface TTableRendererType
@@ -34,4 +43,76 @@ public interface TTableRendererType
    */
 
   List<String> renderLines(TTableType table);
+
+  /**
+   * Render the given table, writing text to the given output. Renderers
+   * write output incrementally as it is produced, so large tables can be
+   * streamed to files or network connections without first being buffered
+   * in memory. Each line of output is followed by a line separator.
+   *
+   * @param table  The input table
+   * @param output The output
+   *
+   * @throws IOException On I/O errors
+   */
+
+  default void render(
+    final TTableType table,
+    final Appendable output)
+    throws IOException
+  {
+    for (final var line : this.renderLines(table)) {
+      output.append(line);
+      output.append('\n');
+    }
+  }
+
+  /**
+   * Render a window of rows of the given table, producing lines of text as an
+   * output. The output is a complete table (including any headers and framing)
+   * that contains only the rows in the given range. Rows outside of the range
+   * are not examined, and so the cost of rendering a window is proportional
+   * to the size of the window and not to the size of the table.
+   *
+   * @param table    The input table
+   * @param firstRow The index of the first row to render
+   * @param rowCount The number of rows to render
+   *
+   * @return The output lines
+   *
+   * @see TTableType#rowWindow(int, int)
+   */
+
+  default List<String> renderLines(
+    final TTableType table,
+    final int firstRow,
+    final int rowCount)
+  {
+    return this.renderLines(table.rowWindow(firstRow, rowCount));
+  }
+
+  /**
+   * Render a window of rows of the given table, writing text to the given
+   * output. The output is a complete table that contains only the rows in the
+   * given range, and rows outside of the range are not examined.
+   *
+   * @param table    The input table
+   * @param firstRow The index of the first row to render
+   * @param rowCount The number of rows to render
+   * @param output   The output
+   *
+   * @throws IOException On I/O errors
+   *
+   * @see TTableType#rowWindow(int, int)
+   */
+
+  default void render(
+    final TTableType table,
+    final int firstRow,
+    final int rowCount,
+    final Appendable output)
+    throws IOException
+  {
+    this.render(table.rowWindow(firstRow, rowCount), output);
+  }
 }
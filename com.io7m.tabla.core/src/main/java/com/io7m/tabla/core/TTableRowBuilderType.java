@@ -23,6 +23,22 @@ package com.io7m.tabla.core;
 
 public interface TTableRowBuilderType
 {
+  /**
+   * Add a cell. Leading and trailing whitespace is removed from the content,
+   * and the remaining characters are copied exactly once. The given sequence
+   * is only read during this call, so callers may pass views of reusable
+   * buffers such as {@link java.nio.CharBuffer} slices.
+   *
+   * @param content The cell content
+   *
+   * @return this
+   *
+   * @throws TException If this call would add too many cells
+   */
+
+  TTableRowBuilderType addCell(CharSequence content)
+    throws TException;
+
   /**
    * Add a cell.
    *
@@ -31,8 +47,42 @@ public interface TTableRowBuilderType
    * @return this
    *
    * @throws TException If this call would add too many cells
+   *
+   * @see #addCell(CharSequence)
+   */
+
+  default TTableRowBuilderType addCell(
+    final String content)
+    throws TException
+  {
+    return this.addCell((CharSequence) content);
+  }
+
+  /**
+   * Add a numeric cell. The cell is displayed using the number format of its
+   * column, and is not formatted until its content is requested.
+   *
+   * @param value The cell value
+   *
+   * @return this
+   *
+   * @throws TException If this call would add too many cells
+   */
+
+  TTableRowBuilderType addCell(long value)
+    throws TException;
+
+  /**
+   * Add a numeric cell. The cell is displayed using the number format of its
+   * column, and is not formatted until its content is requested.
+   *
+   * @param value The cell value
+   *
+   * @return this
+   *
+   * @throws TException If this call would add too many cells
    */
 
-  TTableRowBuilderType addCell(String content)
+  TTableRowBuilderType addCell(double value)
     throws TException;
 }
@@ -38,7 +38,8 @@ public interface TTableRowType
 
   /**
    * Retrieve the formatted content of the given cell. Each string returned
-   * in the list may be truncated, padded, etc.
+   * in the list may be truncated, hyphenated, etc. Lines are not padded;
+   * renderers pad each line according to the alignment of the column.
    *
    * @param index The cell/column index
    *
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core;
+
+import java.util.List;
+
+/**
+ * A source of cell styles. Styles are looked up at render time, and so a
+ * table can be rendered with different styles without being rebuilt.
+ */
+
+@FunctionalInterface
+public interface TTableStyleType
+{
+  /**
+   * @param table  The table being rendered
+   * @param row    The index of the row within the table being rendered
+   * @param column The index of the column
+   *
+   * @return The style of the given cell
+   */
+
+  TCellStyle cellStyle(
+    TTableType table,
+    int row,
+    int column);
+
+  /**
+   * @param table  The table being rendered
+   * @param column The index of the column
+   *
+   * @return The style of the header of the given column
+   */
+
+  default TCellStyle headerStyle(
+    final TTableType table,
+    final int column)
+  {
+    return TCellStyle.none();
+  }
+
+  /**
+   * @return A style source that leaves every cell unstyled
+   */
+
+  static TTableStyleType none()
+  {
+    return (table, row, column) -> TCellStyle.none();
+  }
+
+  /**
+   * Style every cell in a column, including the header, with the style given
+   * for that column. Columns without a style in the list are unstyled.
+   *
+   * @param styles The column styles
+   *
+   * @return A style source
+   */
+
+  static TTableStyleType byColumn(
+    final List<TCellStyle> styles)
+  {
+    final var copy = List.copyOf(styles);
+    return new TTableStyleType()
+    {
+      @Override
+      public TCellStyle cellStyle(
+        final TTableType table,
+        final int row,
+        final int column)
+      {
+        return this.headerStyle(table, column);
+      }
+
+      @Override
+      public TCellStyle headerStyle(
+        final TTableType table,
+        final int column)
+      {
+        return column < copy.size() ? copy.get(column) : TCellStyle.none();
+      }
+    };
+  }
+}
@@ -16,6 +16,11 @@
 
 package com.io7m.tabla.core;
 
+import com.io7m.tabla.core.internal.TTableViews;
+
+import java.util.List;
+import java.util.function.Predicate;
+
 /**
  * An immutable table.
  */
@@ -66,4 +71,142 @@ public interface TTableType
     }
     return sum;
   }
+
+  /**
+   * Produce a view of a contiguous range of rows of this table. The view
+   * shares all rows, columns, and column widths with this table, and no work
+   * is performed for rows outside of the range.
+   *
+   * @param firstRow The index of the first row
+   * @param rowCount The number of rows
+   *
+   * @return A view of the given rows
+   */
+
+  default TTableType rowWindow(
+    final int firstRow,
+    final int rowCount)
+  {
+    return TTableViews.rowWindow(this, firstRow, rowCount);
+  }
+
+  /**
+   * Produce a view of a contiguous range of columns of this table. The
+   * columns in the view retain the widths they have in this table; no
+   * constraints are solved again and no cells are rewrapped. Cells outside
+   * of the range are not examined when the view is rendered.
+   *
+   * @param firstColumn The index of the first column
+   * @param columnCount The number of columns
+   *
+   * @return A view of the given columns
+   */
+
+  default TTableType columnWindow(
+    final int firstColumn,
+    final int columnCount)
+  {
+    return TTableViews.columnWindow(this, firstColumn, columnCount);
+  }
+
+  /**
+   * Produce a view of the given columns of this table, in the given order.
+   * The view shares its cells with this table. If this table was produced
+   * by a builder, the widths of the selected columns are solved again from
+   * the original column constraints and the content of the selected
+   * columns; otherwise, the columns retain their widths.
+   *
+   * @param columns The indices of the columns
+   *
+   * @return A view of the given columns
+   *
+   * @throws TException If the column widths cannot be solved
+   */
+
+  default TTableType project(
+    final int... columns)
+    throws TException
+  {
+    return TTableViews.project(this, columns);
+  }
+
+  /**
+   * Produce a view of the rows of this table that match the given predicate.
+   * The view shares its cells with this table, and holds only the indices
+   * of the matching rows. If this table was produced by a builder, the
+   * column widths are solved again from the content of the matching rows;
+   * otherwise, the columns retain their widths.
+   *
+   * @param predicate The row predicate
+   *
+   * @return A view of the matching rows
+   *
+   * @throws TException If the column widths cannot be solved
+   */
+
+  default TTableType filter(
+    final Predicate<? super TTableRowType> predicate)
+    throws TException
+  {
+    return TTableViews.filter(this, predicate);
+  }
+
+  /**
+   * Produce a view of the given rows of this table, in the given order. The
+   * indices are typically a permutation of the rows of this table, but may
+   * omit or repeat rows. The view shares its cells with this table, and
+   * column widths are solved as for {@link #filter(Predicate)}.
+   *
+   * @param rows The indices of the rows
+   *
+   * @return A view of the given rows
+   *
+   * @throws TException If the column widths cannot be solved
+   */
+
+  default TTableType reorder(
+    final int... rows)
+    throws TException
+  {
+    return TTableViews.reorder(this, rows);
+  }
+
+  /**
+   * Produce a view of this table with its rows sorted by the given keys. The
+   * sort is stable; rows that compare equal by every key retain their
+   * relative order. Only an array of row indices is sorted, and the view
+   * shares its rows, including their wrapped content, with this table.
+   *
+   * @param keys The sort keys, in order of precedence
+   *
+   * @return A sorted view of this table
+   *
+   * @throws TException On errors
+   */
+
+  default TTableType sort(
+    final List<TSortKey> keys)
+    throws TException
+  {
+    return TTableViews.sort(this, keys);
+  }
+
+  /**
+   * Produce a view of this table with its rows sorted by the given keys.
+   *
+   * @param keys The sort keys, in order of precedence
+   *
+   * @return A sorted view of this table
+   *
+   * @throws TException On errors
+   *
+   * @see #sort(List)
+   */
+
+  default TTableType sort(
+    final TSortKey... keys)
+    throws TException
+  {
+    return this.sort(List.of(keys));
+  }
 }
@@ -18,11 +18,25 @@
 package com.io7m.tabla.core;
 
 import com.io7m.tabla.core.internal.TTableRendererCSV;
+import com.io7m.tabla.core.internal.TTableRendererExpanded;
 import com.io7m.tabla.core.internal.TTableRendererFramed;
+import com.io7m.tabla.core.internal.TTableRendererFramedDifferential;
+import com.io7m.tabla.core.internal.TTableRendererFrameless;
+import com.io7m.tabla.core.internal.TTableRendererHTML;
+import com.io7m.tabla.core.internal.TTableRendererJSONLines;
+import com.io7m.tabla.core.internal.TTableRendererMarkdown;
+import com.io7m.tabla.core.internal.TTableRendererMemoised;
+import com.io7m.tabla.core.internal.TTableRendererTSV;
 import com.io7m.tabla.core.internal.TTables;
 
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * The main facade to the {@code tabla} package functionality.
+ *
+ * <p>All renderers returned by this class may be shared freely between
+ * threads. All renderers other than memoising renderers are immutable.</p>
  */
 
 public final class Tabla
@@ -41,6 +55,95 @@ public final class Tabla
     return TTableRendererCSV.csv();
   }
 
+  /**
+   * @param configuration The CSV configuration
+   *
+   * @return A renderer that renders tables as CSV files
+   */
+
+  public static TTableRendererType csvRenderer(
+    final TCSVConfiguration configuration)
+  {
+    return TTableRendererCSV.csv(
+      Objects.requireNonNull(configuration, "configuration")
+    );
+  }
+
+  /**
+   * @return A renderer that renders tables as GitHub-flavoured Markdown
+   * tables, with alignment markers derived from the column alignments
+   */
+
+  public static TTableRendererType markdownRenderer()
+  {
+    return TTableRendererMarkdown.markdown();
+  }
+
+  /**
+   * @return A renderer that renders tables as tab-separated values
+   */
+
+  public static TTableRendererType tsvRenderer()
+  {
+    return TTableRendererTSV.tsv();
+  }
+
+  /**
+   * @return A renderer that renders each table row as a JSON object on a
+   * single line
+   */
+
+  public static TTableRendererType jsonLinesRenderer()
+  {
+    return TTableRendererJSONLines.jsonLines();
+  }
+
+  /**
+   * @return A renderer that renders tables as HTML {@code <table>} elements
+   */
+
+  public static TTableRendererType htmlRenderer()
+  {
+    return TTableRendererHTML.html();
+  }
+
+  /**
+   * @return A renderer that renders tables as space-separated aligned
+   * columns, without frames or dividers
+   */
+
+  public static TTableRendererType framelessRenderer()
+  {
+    return TTableRendererFrameless.frameless();
+  }
+
+  /**
+   * @return A renderer that renders tables as space-separated aligned
+   * columns, without frames or dividers, with an underlined header
+   */
+
+  public static TTableRendererType framelessRendererUnderlined()
+  {
+    return TTableRendererFrameless.framelessUnderlined();
+  }
+
+  /**
+   * Create a renderer that renders each row as a block of header and value
+   * lines, which suits tables with many columns. Values are wrapped from
+   * their raw content, so the renderer may be used with tables produced by
+   * {@link TTableBuilderType#buildUnformatted()}.
+   *
+   * @param maximumWidth The maximum width of rendered lines
+   *
+   * @return A renderer that renders tables in expanded form
+   */
+
+  public static TTableRendererType expandedRenderer(
+    final int maximumWidth)
+  {
+    return TTableRendererExpanded.expanded(maximumWidth);
+  }
+
   /**
    * @return A renderer that renders tables as framed,
    * human-readable-computer-hostile tables with Unicode characters
@@ -61,6 +164,144 @@ public final class Tabla
     return TTableRendererFramed.ascii();
   }
 
+  /**
+   * Create a renderer that renders tables as framed tables with Unicode
+   * characters. Tables with large numbers of rows are split into blocks of
+   * rows, and the blocks are rendered in parallel on the given pool. The
+   * output is identical to that of {@link #framedUnicodeRenderer()}.
+   *
+   * @param pool The fork/join pool (such as {@link ForkJoinPool#commonPool()})
+   *
+   * @return A renderer that renders tables as framed,
+   * human-readable-computer-hostile tables with Unicode characters
+   */
+
+  public static TTableRendererType framedUnicodeRendererParallel(
+    final ForkJoinPool pool)
+  {
+    return TTableRendererFramed.unicodeParallel(
+      Objects.requireNonNull(pool, "pool")
+    );
+  }
+
+  /**
+   * Create a renderer that renders tables as framed tables with ASCII
+   * characters. Tables with large numbers of rows are split into blocks of
+   * rows, and the blocks are rendered in parallel on the given pool. The
+   * output is identical to that of {@link #framedASCIIRenderer()}.
+   *
+   * @param pool The fork/join pool (such as {@link ForkJoinPool#commonPool()})
+   *
+   * @return A renderer that renders tables as framed,
+   * human-readable-computer-hostile tables with ASCII characters
+   */
+
+  public static TTableRendererType framedASCIIRendererParallel(
+    final ForkJoinPool pool)
+  {
+    return TTableRendererFramed.asciiParallel(
+      Objects.requireNonNull(pool, "pool")
+    );
+  }
+
+  /**
+   * Create a renderer that produces output identical to that of
+   * {@link #framedUnicodeRenderer()}, except that cells are styled with ANSI
+   * terminal sequences. Styles are looked up when a table is rendered, and
+   * so changing the styles never requires rebuilding the table.
+   *
+   * @param styles The source of cell styles
+   *
+   * @return A renderer that renders framed tables with styled cells
+   */
+
+  public static TTableRendererType framedUnicodeRendererStyled(
+    final TTableStyleType styles)
+  {
+    return TTableRendererFramed.unicodeStyled(
+      Objects.requireNonNull(styles, "styles")
+    );
+  }
+
+  /**
+   * Create a renderer that produces output identical to that of
+   * {@link #framedASCIIRenderer()}, except that cells are styled with ANSI
+   * terminal sequences. Styles are looked up when a table is rendered, and
+   * so changing the styles never requires rebuilding the table.
+   *
+   * @param styles The source of cell styles
+   *
+   * @return A renderer that renders framed tables with styled cells
+   */
+
+  public static TTableRendererType framedASCIIRendererStyled(
+    final TTableStyleType styles)
+  {
+    return TTableRendererFramed.asciiStyled(
+      Objects.requireNonNull(styles, "styles")
+    );
+  }
+
+  /**
+   * @return A renderer that updates tables previously rendered by
+   * {@link #framedUnicodeRenderer()} in place on a terminal
+   */
+
+  public static TTableDifferentialRendererType framedUnicodeDifferentialRenderer()
+  {
+    return TTableRendererFramedDifferential.unicode();
+  }
+
+  /**
+   * @return A renderer that updates tables previously rendered by
+   * {@link #framedASCIIRenderer()} in place on a terminal
+   */
+
+  public static TTableDifferentialRendererType framedASCIIDifferentialRenderer()
+  {
+    return TTableRendererFramedDifferential.ascii();
+  }
+
+  /**
+   * Create a renderer that caches the output of the given renderer. Rendering
+   * the same table a second time is then a cache lookup. Tables are weakly
+   * referenced by the cache, and tables must not change after they have been
+   * rendered; tables produced by builders are immutable.
+   *
+   * @param renderer The renderer that produces output
+   *
+   * @return A memoising renderer
+   */
+
+  public static TTableRendererType memoisedRenderer(
+    final TTableRendererType renderer)
+  {
+    return TTableRendererMemoised.memoised(
+      Objects.requireNonNull(renderer, "renderer"),
+      false
+    );
+  }
+
+  /**
+   * Create a renderer that caches the output of the given renderer, as with
+   * {@link #memoisedRenderer(TTableRendererType)}. Cached output is softly
+   * referenced, and so may be discarded under memory pressure and rendered
+   * again when next requested.
+   *
+   * @param renderer The renderer that produces output
+   *
+   * @return A memoising renderer
+   */
+
+  public static TTableRendererType memoisedRendererSoft(
+    final TTableRendererType renderer)
+  {
+    return TTableRendererMemoised.memoised(
+      Objects.requireNonNull(renderer, "renderer"),
+      true
+    );
+  }
+
   /**
    * @return A new mutable table builder
    */
@@ -69,4 +310,58 @@ public final class Tabla
   {
     return TTables.builder();
   }
+
+  /**
+   * Create a builder with storage sized for the expected number of rows, so
+   * that loading that many rows does not resize any internal arrays.
+   *
+   * @param expectedRows The expected number of rows
+   *
+   * @return A new mutable table builder
+   */
+
+  public static TTableBuilderType builder(
+    final int expectedRows)
+  {
+    return TTables.builder(expectedRows);
+  }
+
+  /**
+   * Create a builder with storage sized for the expected number of rows and
+   * columns, so that loading that many rows and declaring that many columns
+   * does not resize any internal arrays.
+   *
+   * @param expectedRows    The expected number of rows
+   * @param expectedColumns The expected number of columns
+   *
+   * @return A new mutable table builder
+   */
+
+  public static TTableBuilderType builder(
+    final int expectedRows,
+    final int expectedColumns)
+  {
+    return TTables.builder(expectedRows, expectedColumns);
+  }
+
+  /**
+   * Create a builder with storage sized for the expected number of rows and
+   * columns, that stores cell content in the given manner.
+   *
+   * @param expectedRows    The expected number of rows
+   * @param expectedColumns The expected number of columns
+   * @param storage         The cell storage mode
+   *
+   * @return A new mutable table builder
+   *
+   * @see TCellStorage
+   */
+
+  public static TTableBuilderType builder(
+    final int expectedRows,
+    final int expectedColumns,
+    final TCellStorage storage)
+  {
+    return TTables.builder(expectedRows, expectedColumns, storage);
+  }
 }
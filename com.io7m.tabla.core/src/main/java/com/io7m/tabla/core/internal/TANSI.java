@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TANSIColor;
+import com.io7m.tabla.core.TCellStyle;
+
+/**
+ * Precomputed ANSI SGR (Select Graphic Rendition) sequences. A sequence is
+ * computed once for every possible style, and styling a cell is then a
+ * single array lookup.
+ */
+
+final class TANSI
+{
+  /**
+   * The sequence that resets all attributes.
+   */
+
+  static final String RESET = "\u001b[0m";
+
+  private static final int COLORS =
+    TANSIColor.values().length;
+
+  private static final String[] SEQUENCES =
+    createSequences();
+
+  private TANSI()
+  {
+
+  }
+
+  private static String[] createSequences()
+  {
+    final var colors = TANSIColor.values();
+    final var sequences = new String[COLORS * COLORS * 2];
+    final var buffer = new StringBuilder(16);
+
+    for (final var foreground : colors) {
+      for (final var background : colors) {
+        for (int bold = 0; bold < 2; ++bold) {
+          buffer.setLength(0);
+          if (bold == 1) {
+            buffer.append(";1");
+          }
+          if (foreground != TANSIColor.DEFAULT) {
+            buffer.append(';');
+            buffer.append(29 + foreground.ordinal());
+          }
+          if (background != TANSIColor.DEFAULT) {
+            buffer.append(';');
+            buffer.append(39 + background.ordinal());
+          }
+
+          final var index =
+            indexOf(foreground, background, bold == 1);
+
+          if (buffer.isEmpty()) {
+            sequences[index] = "";
+          } else {
+            buffer.setCharAt(0, '[');
+            buffer.insert(0, '\u001b');
+            buffer.append('m');
+            sequences[index] = buffer.toString();
+          }
+        }
+      }
+    }
+    return sequences;
+  }
+
+  private static int indexOf(
+    final TANSIColor foreground,
+    final TANSIColor background,
+    final boolean bold)
+  {
+    final var colorIndex =
+      (foreground.ordinal() * COLORS) + background.ordinal();
+    return (colorIndex * 2) + (bold ? 1 : 0);
+  }
+
+  /**
+   * @param style The style
+   *
+   * @return The SGR sequence that enables the given style, or the empty
+   * string if the style leaves text unchanged
+   */
+
+  static String sequenceOf(
+    final TCellStyle style)
+  {
+    return SEQUENCES[indexOf(style.foreground(), style.background(), style.bold())];
+  }
+}
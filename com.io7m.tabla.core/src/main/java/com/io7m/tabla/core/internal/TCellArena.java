@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TException;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+
+/**
+ * An append-only arena of encoded cell content. Content is copied into large
+ * byte array chunks, and each piece of content is identified by an address
+ * that packs the chunk index, the offset within the chunk, and the encoded
+ * length into a single {@code long}. Chunks are never modified below their
+ * current fill position, so tables may safely retain the chunks of an arena
+ * while a builder continues to append to it.
+ */
+
+final class TCellArena
+{
+  /**
+   * The size of a chunk. Content larger than this receives a chunk of its
+   * own.
+   */
+
+  static final int CHUNK_SIZE = 1 << 20;
+
+  private static final int LENGTH_BITS = 22;
+  private static final int OFFSET_BITS = 20;
+  private static final int MAXIMUM_LENGTH = (1 << LENGTH_BITS) - 1;
+  private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1L;
+  private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1L;
+
+  private byte[][] chunks;
+  private int chunkCount;
+  private int current;
+  private int position;
+
+  TCellArena()
+  {
+    this.chunks = new byte[8][];
+    this.chunks[0] = new byte[CHUNK_SIZE];
+    this.chunkCount = 1;
+    this.current = 0;
+    this.position = 0;
+  }
+
+  /**
+   * @param text  The text
+   * @param start The start index (inclusive)
+   * @param end   The end index (exclusive)
+   *
+   * @return {@code true} if the given range can be encoded as ISO-8859-1
+   */
+
+  static boolean isLatin1(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    for (int index = start; index < end; ++index) {
+      if (text.charAt(index) > 0xff) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Append a range of text.
+   *
+   * @param text   The text
+   * @param start  The start index (inclusive)
+   * @param end    The end index (exclusive)
+   * @param latin1 {@code true} if the text is to be encoded as ISO-8859-1
+   *
+   * @return The address of the content
+   *
+   * @throws TException If the content is too large
+   */
+
+  long append(
+    final CharSequence text,
+    final int start,
+    final int end,
+    final boolean latin1)
+    throws TException
+  {
+    final var count = end - start;
+    final var bytes = latin1 ? count : count * 2;
+    if (bytes > MAXIMUM_LENGTH) {
+      throw errorTooLarge(bytes);
+    }
+
+    final var chunkIndex = this.reserve(bytes);
+    final var chunk = this.chunks[chunkIndex];
+    final var offset = chunkIndex == this.current ? this.position - bytes : 0;
+
+    if (latin1) {
+      for (int index = 0; index < count; ++index) {
+        chunk[offset + index] = (byte) text.charAt(start + index);
+      }
+    } else {
+      for (int index = 0; index < count; ++index) {
+        final var c = text.charAt(start + index);
+        chunk[offset + (index * 2)] = (byte) c;
+        chunk[offset + (index * 2) + 1] = (byte) (c >>> 8);
+      }
+    }
+
+    return ((long) chunkIndex << (OFFSET_BITS + LENGTH_BITS))
+           | ((long) offset << LENGTH_BITS)
+           | bytes;
+  }
+
+  /**
+   * Reserve space for the given number of bytes.
+   *
+   * @return The index of the chunk that holds the space
+   */
+
+  private int reserve(
+    final int bytes)
+  {
+    if (bytes > CHUNK_SIZE) {
+      return this.addChunk(new byte[bytes]);
+    }
+
+    if (CHUNK_SIZE - this.position < bytes) {
+      this.current = this.addChunk(new byte[CHUNK_SIZE]);
+      this.position = 0;
+    }
+    this.position += bytes;
+    return this.current;
+  }
+
+  private int addChunk(
+    final byte[] chunk)
+  {
+    if (this.chunkCount == this.chunks.length) {
+      this.chunks = Arrays.copyOf(this.chunks, this.chunkCount * 2);
+    }
+    final var index = this.chunkCount;
+    this.chunks[index] = chunk;
+    ++this.chunkCount;
+    return index;
+  }
+
+  /**
+   * @return The chunks appended so far; the returned array is not modified
+   * by subsequent appends
+   */
+
+  byte[][] chunks()
+  {
+    return Arrays.copyOf(this.chunks, this.chunkCount);
+  }
+
+  /**
+   * Decode content.
+   *
+   * @param chunks  The arena chunks
+   * @param address The address of the content
+   * @param latin1  {@code true} if the content is encoded as ISO-8859-1
+   *
+   * @return The content
+   */
+
+  static String decode(
+    final byte[][] chunks,
+    final long address,
+    final boolean latin1)
+  {
+    final var chunk =
+      chunks[(int) (address >>> (OFFSET_BITS + LENGTH_BITS))];
+    final var offset =
+      (int) ((address >>> LENGTH_BITS) & OFFSET_MASK);
+    final var length =
+      (int) (address & LENGTH_MASK);
+
+    return new String(chunk, offset, length, latin1 ? ISO_8859_1 : UTF_16LE);
+  }
+
+  private static TException errorTooLarge(
+    final int bytes)
+  {
+    return new TException(
+      "Cell content is too large for compact storage.",
+      "error-cell-too-large",
+      Map.ofEntries(
+        Map.entry("Encoded Size", Integer.toString(bytes)),
+        Map.entry("Maximum Size", Integer.toString(MAXIMUM_LENGTH))
+      ),
+      Optional.empty()
+    );
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TColumnAlignment;
+import com.io7m.tabla.core.TTableColumnType;
+
+/**
+ * Functions to pad unpadded cell content according to the alignment of a
+ * column. Alignment is applied while padding, and so aligned content is
+ * produced without any intermediate strings.
+ */
+
+final class TColumnAligner
+{
+  private TColumnAligner()
+  {
+
+  }
+
+  /**
+   * Determine the width of the fractional part of the given text. The
+   * fractional part begins at the first decimal point, and includes the
+   * point itself. Text without a decimal point has a fractional part of
+   * width zero.
+   *
+   * @param text The text
+   *
+   * @return The width of the fractional part
+   */
+
+  static int fractionWidthOf(
+    final CharSequence text)
+  {
+    return fractionWidthOf(text, 0, text.length());
+  }
+
+  /**
+   * @param text  The text
+   * @param start The start index (inclusive)
+   * @param end   The end index (exclusive)
+   *
+   * @return The width of the fractional part of the given range of text
+   *
+   * @see #fractionWidthOf(CharSequence)
+   */
+
+  static int fractionWidthOf(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    for (int index = start; index < end; ++index) {
+      if (text.charAt(index) == '.') {
+        return end - index;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Append the given text to the output, padded to the width of the given
+   * column according to the column's alignment.
+   *
+   * @param output The output
+   * @param column The column
+   * @param text   The text
+   */
+
+  static void appendAligned(
+    final StringBuilder output,
+    final TTableColumnType column,
+    final String text)
+  {
+    final var space = column.width() - text.length();
+
+    switch (column.alignment()) {
+      case LEFT -> {
+        output.append(text);
+        TPadding.pad(output, space);
+      }
+      case RIGHT -> {
+        TPadding.pad(output, space);
+        output.append(text);
+      }
+      case CENTER -> {
+        final var left = space / 2;
+        TPadding.pad(output, left);
+        output.append(text);
+        TPadding.pad(output, space - left);
+      }
+      case DECIMAL -> {
+        final var trailing =
+          Math.clamp(
+            (long) fractionWidthFor(column) - fractionWidthOf(text),
+            0,
+            Math.max(space, 0)
+          );
+        TPadding.pad(output, space - trailing);
+        output.append(text);
+        TPadding.pad(output, trailing);
+      }
+    }
+  }
+
+  /**
+   * Append the given header text to the output, padded to the width of the
+   * given column. Headers of {@link TColumnAlignment#DECIMAL} columns are
+   * right aligned.
+   *
+   * @param output The output
+   * @param column The column
+   * @param text   The header text
+   */
+
+  static void appendAlignedHeader(
+    final StringBuilder output,
+    final TTableColumnType column,
+    final String text)
+  {
+    if (column.alignment() == TColumnAlignment.DECIMAL) {
+      TPadding.pad(output, column.width() - text.length());
+      output.append(text);
+      return;
+    }
+    appendAligned(output, column, text);
+  }
+
+  /**
+   * @param column The column
+   *
+   * @return The width of the widest fractional part of the given column,
+   * used to align the decimal points of its cells
+   */
+
+  static int fractionWidthFor(
+    final TTableColumnType column)
+  {
+    /*
+     * The widest fractional part is recorded by the builder. Columns that
+     * did not come from a builder are treated as having no fractional parts,
+     * which is equivalent to right alignment.
+     */
+
+    if (column instanceof final TTableColumn c) {
+      return c.fractionWidth();
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of content lengths, used to find the content length
+ * at a percentile of a column. Each length is counted in O(1). Lengths up to
+ * {@link #EXACT_LENGTHS} are counted exactly; longer lengths share a single
+ * bucket, and a percentile that falls within that bucket yields the maximum
+ * length seen.
+ */
+
+final class TLengthHistogram
+{
+  /**
+   * The number of lengths counted exactly.
+   */
+
+  static final int EXACT_LENGTHS = 255;
+
+  private final double percentile;
+  private final long[] counts;
+  private long total;
+  private int maximum;
+
+  TLengthHistogram(
+    final double inPercentile)
+  {
+    this.percentile = inPercentile;
+    this.counts = new long[EXACT_LENGTHS + 1];
+  }
+
+  /**
+   * Count a length.
+   *
+   * @param length The length
+   */
+
+  void add(
+    final int length)
+  {
+    ++this.counts[Math.min(length, EXACT_LENGTHS)];
+    ++this.total;
+    this.maximum = Math.max(this.maximum, length);
+  }
+
+  /**
+   * Remove all lengths.
+   */
+
+  void clear()
+  {
+    Arrays.fill(this.counts, 0L);
+    this.total = 0L;
+    this.maximum = 0;
+  }
+
+  /**
+   * @return The smallest length such that at least the percentile of the
+   * counted lengths are less than or equal to it
+   */
+
+  int length()
+  {
+    if (this.total == 0L) {
+      return 0;
+    }
+
+    final var rank =
+      Math.max(1L, (long) Math.ceil(this.percentile / 100.0 * this.total));
+
+    var seen = 0L;
+    for (int length = 0; length < EXACT_LENGTHS; ++length) {
+      seen += this.counts[length];
+      if (seen >= rank) {
+        return length;
+      }
+    }
+    return this.maximum;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+/**
+ * Functions to pad text with spaces without allocating.
+ */
+
+final class TPadding
+{
+  private static final String SPACES =
+    " ".repeat(256);
+
+  private TPadding()
+  {
+
+  }
+
+  /**
+   * Append {@code count} spaces to the given buffer.
+   *
+   * @param output The output buffer
+   * @param count  The number of spaces
+   */
+
+  static void pad(
+    final StringBuilder output,
+    final int count)
+  {
+    var remaining = count;
+    while (remaining > 0) {
+      final var size = Math.min(remaining, SPACES.length());
+      output.append(SPACES, 0, size);
+      remaining -= size;
+    }
+  }
+
+  /**
+   * Append {@code count} copies of {@code c} to the given buffer.
+   *
+   * @param output The output buffer
+   * @param c      The character
+   * @param count  The number of characters
+   */
+
+  static void fill(
+    final StringBuilder output,
+    final char c,
+    final int count)
+  {
+    if (c == ' ') {
+      pad(output, count);
+      return;
+    }
+    for (int index = 0; index < count; ++index) {
+      output.append(c);
+    }
+  }
+}
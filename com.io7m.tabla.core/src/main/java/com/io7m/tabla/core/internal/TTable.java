@@ -23,20 +23,47 @@ import com.io7m.tabla.core.TTableType;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 final class TTable implements TTableType
 {
   private final List<TTableRow> rows;
   private final List<TTableColumn> columns;
+  private final Optional<TTableConstraints> constraints;
 
   TTable(
     final List<TTableRow> inRows,
-    final List<TTableColumn> inColumns)
+    final List<TTableColumn> inColumns,
+    final Optional<TTableConstraints> inConstraints)
   {
     this.rows =
       Objects.requireNonNull(inRows, "rowCount");
     this.columns =
       Objects.requireNonNull(inColumns, "columnCount");
+    this.constraints =
+      Objects.requireNonNull(inConstraints, "constraints");
+  }
+
+  /**
+   * @return The constraints from which the column widths were solved, if
+   * the widths were solved at all
+   */
+
+  Optional<TTableConstraints> constraints()
+  {
+    return this.constraints;
+  }
+
+  /**
+   * @param row The row index
+   *
+   * @return The row at the given index
+   */
+
+  TTableRow row(
+    final int row)
+  {
+    return this.rows.get(row);
   }
 
   @Override
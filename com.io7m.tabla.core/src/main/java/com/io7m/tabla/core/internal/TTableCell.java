@@ -18,34 +18,176 @@
 package com.io7m.tabla.core.internal;
 
 import com.io7m.jaffirm.core.Invariants;
+import com.io7m.tabla.core.TNumberFormatType;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
 
+/**
+ * A table cell. The formatted content of a cell is produced lazily the first
+ * time it is requested, so that cells that are never rendered are never
+ * wrapped. Numeric cells hold their value and number format, and produce
+ * their raw content lazily in the same manner.
+ */
+
 final class TTableCell
 {
   private static final Pattern WHITESPACE =
     Pattern.compile("\\s+");
 
-  private final String contentRaw;
-  private final List<String> contentFormatted;
+  private final int width;
+  private final Number number;
+  private volatile String contentRaw;
+  private volatile List<String> contentFormatted;
 
   private TTableCell(
     final String inContentRaw,
-    final List<String> inContentFormatted)
+    final Number inNumber,
+    final int inWidth)
   {
     this.contentRaw = inContentRaw;
-    this.contentFormatted = inContentFormatted;
+    this.number = inNumber;
+    this.width = inWidth;
   }
 
   public static TTableCell create(
     final int width,
     final String content)
+  {
+    return new TTableCell(content, null, width);
+  }
+
+  public static TTableCell createLong(
+    final int width,
+    final long value,
+    final TNumberFormatType format)
+  {
+    return new TTableCell(null, new Number(value, false, format), width);
+  }
+
+  public static TTableCell createDouble(
+    final int width,
+    final double value,
+    final TNumberFormatType format)
+  {
+    return new TTableCell(
+      null,
+      new Number(Double.doubleToRawLongBits(value), true, format),
+      width
+    );
+  }
+
+  /**
+   * @param newWidth The new width
+   *
+   * @return A cell with the same content as this cell, wrapped to the given
+   * width; the content itself is shared and not copied
+   */
+
+  TTableCell withWidth(
+    final int newWidth)
+  {
+    if (newWidth == this.width) {
+      return this;
+    }
+    return new TTableCell(this.contentRaw, this.number, newWidth);
+  }
+
+  /**
+   * @return The length of the raw content, computed without formatting
+   * numeric cells
+   */
+
+  int contentLength()
+  {
+    if (this.number != null) {
+      return this.number.length();
+    }
+    return this.contentRaw.length();
+  }
+
+  /**
+   * @return The width of the fractional part of the raw content, including
+   * the decimal point, computed without formatting numeric cells
+   *
+   * @see TColumnAligner#fractionWidthOf(CharSequence)
+   */
+
+  int fractionWidth()
+  {
+    final var n = this.number;
+    if (n == null) {
+      return TColumnAligner.fractionWidthOf(this.contentRaw);
+    }
+    if (n.isDouble) {
+      return n.format.fractionWidthOf(Double.longBitsToDouble(n.bits));
+    }
+    return 0;
+  }
+
+  /**
+   * @return {@code true} if this cell holds a number
+   */
+
+  boolean isNumeric()
+  {
+    return this.number != null;
+  }
+
+  /**
+   * @return {@code true} if this cell holds a {@code long} value
+   */
+
+  boolean isLong()
+  {
+    return this.number != null && !this.number.isDouble;
+  }
+
+  /**
+   * @return The exact value of this cell if it holds a {@code long} value
+   *
+   * @see #isLong()
+   */
+
+  long longValue()
+  {
+    return this.number.bits;
+  }
+
+  /**
+   * @return The value of this cell if it holds a number, or {@code NaN}
+   */
+
+  double numericValue()
+  {
+    final var n = this.number;
+    if (n == null) {
+      return Double.NaN;
+    }
+    if (n.isDouble) {
+      return Double.longBitsToDouble(n.bits);
+    }
+    return (double) n.bits;
+  }
+
+  /**
+   * Wrap the given content into lines of at most the given width, hyphenating
+   * words that are too long to fit on any line.
+   *
+   * @param width   The maximum line width
+   * @param content The content
+   *
+   * @return The unpadded lines
+   */
+
+  static List<String> wrap(
+    final int width,
+    final String content)
   {
     if (width == 0) {
-      return new TTableCell(content, List.of(""));
+      return List.of("");
     }
 
     final var output =
@@ -101,24 +243,29 @@ final class TTableCell
       output.add(finishString(width, lineBuffer));
     }
 
-    return new TTableCell(
-      content,
-      List.copyOf(output)
-    );
+    return List.copyOf(output);
   }
 
   private static String finishString(
     final int width,
     final StringBuilder lineBuffer)
   {
-    while (lineBuffer.length() < width) {
-      lineBuffer.append(' ');
+    /*
+     * Lines are stored unpadded; renderers pad them according to the
+     * alignment of the column. Remove the space left after the last word.
+     */
+
+    var end = lineBuffer.length();
+    while (end > 0 && lineBuffer.charAt(end - 1) == ' ') {
+      --end;
     }
+    lineBuffer.setLength(end);
+
     final var text = lineBuffer.toString();
     Invariants.checkInvariantV(
       text,
-      text.length() == width,
-      "Length of line '%s' must be %d (is %d)",
+      text.length() <= width,
+      "Length of line '%s' must be <= %d (is %d)",
       text,
       Integer.valueOf(width),
       Integer.valueOf(text.length())
@@ -130,6 +277,17 @@ final class TTableCell
     final String word,
     final int maxWidth)
   {
+    /*
+     * A column one character wide has no room for a hyphen, so the word is
+     * split into single codepoints.
+     */
+
+    if (maxWidth <= 1) {
+      return word.codePoints()
+        .mapToObj(Character::toString)
+        .toList();
+    }
+
     /*
      * Break the string up into chunks of at most N-1 codepoints.
      */
@@ -171,11 +329,83 @@ final class TTableCell
 
   public List<String> contentFormatted()
   {
-    return this.contentFormatted;
+    /*
+     * Concurrent callers may both wrap the content, but they will produce
+     * equal immutable lists, and the volatile write publishes them safely.
+     */
+
+    var result = this.contentFormatted;
+    if (result == null) {
+      result = wrap(this.width, this.contentRaw());
+      this.contentFormatted = result;
+    }
+    return result;
   }
 
   public String contentRaw()
   {
-    return this.contentRaw;
+    var result = this.contentRaw;
+    if (result == null) {
+      result = this.number.text();
+      this.contentRaw = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return A hash of the cell content that does not require numeric cells
+   * to be formatted
+   */
+
+  public int contentHash()
+  {
+    if (this.number != null) {
+      return Long.hashCode(this.number.bits);
+    }
+    return this.contentRaw.hashCode();
+  }
+
+  /**
+   * @param other The other cell
+   *
+   * @return {@code true} if the cells have the same raw content; numeric
+   * cells with the same value and format are compared without formatting
+   */
+
+  boolean sameContent(
+    final TTableCell other)
+  {
+    if (this == other) {
+      return true;
+    }
+
+    final var n = this.number;
+    final var o = other.number;
+    if (n != null && o != null && n.format.equals(o.format)) {
+      return n.bits == o.bits && n.isDouble == o.isDouble;
+    }
+    return this.contentRaw().equals(other.contentRaw());
+  }
+
+  private record Number(
+    long bits,
+    boolean isDouble,
+    TNumberFormatType format)
+  {
+    String text()
+    {
+      if (this.isDouble) {
+        return this.format.format(Double.longBitsToDouble(this.bits));
+      }
+      return this.format.format(this.bits);
+    }
+
+    int length()
+    {
+      if (this.isDouble) {
+        return this.format.lengthOf(Double.longBitsToDouble(this.bits));
+      }
+      return this.format.lengthOf(this.bits);
+    }
   }
 }
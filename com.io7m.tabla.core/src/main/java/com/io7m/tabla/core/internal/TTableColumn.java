@@ -17,6 +17,7 @@
 
 package com.io7m.tabla.core.internal;
 
+import com.io7m.tabla.core.TColumnAlignment;
 import com.io7m.tabla.core.TTableColumnType;
 
 import java.util.Objects;
@@ -26,13 +27,21 @@ final class TTableColumn
 {
   private final String name;
   private final int width;
+  private final String nameFormatted;
+  private final TColumnAlignment alignment;
+  private final int fractionWidth;
 
   TTableColumn(
     final String inName,
-    final int inWidth)
+    final int inWidth,
+    final TColumnAlignment inAlignment,
+    final int inFractionWidth)
   {
     this.name = Objects.requireNonNull(inName, "name");
     this.width = inWidth;
+    this.alignment = Objects.requireNonNull(inAlignment, "alignment");
+    this.fractionWidth = inFractionWidth;
+    this.nameFormatted = formattedContent(this.name, this.width);
   }
 
   private static String formattedContent(
@@ -43,17 +52,58 @@ final class TTableColumn
       return "";
     }
 
-    final var builder = new StringBuilder(maxLength);
-    builder.append(text);
-    if (text.length() > maxLength) {
-      builder.setLength(maxLength - 1);
-      builder.append('…');
-    } else {
-      builder.append(" ".repeat(maxLength - text.length()));
+    if (text.length() <= maxLength) {
+      return text;
     }
+
+    final var builder = new StringBuilder(maxLength);
+    builder.append(text, 0, maxLength - 1);
+    builder.append('…');
     return builder.toString();
   }
 
+  /**
+   * @param newWidth The new width
+   *
+   * @return This column with the given width
+   */
+
+  TTableColumn withWidth(
+    final int newWidth)
+  {
+    if (newWidth == this.width) {
+      return this;
+    }
+    return new TTableColumn(
+      this.name,
+      newWidth,
+      this.alignment,
+      this.fractionWidth
+    );
+  }
+
+  /**
+   * @param newWidth         The new width
+   * @param newFractionWidth The new width of the widest fractional part
+   *
+   * @return This column with the given width and fractional part width
+   */
+
+  TTableColumn withLayout(
+    final int newWidth,
+    final int newFractionWidth)
+  {
+    if (newFractionWidth == this.fractionWidth) {
+      return this.withWidth(newWidth);
+    }
+    return new TTableColumn(
+      this.name,
+      newWidth,
+      this.alignment,
+      newFractionWidth
+    );
+  }
+
   @Override
   public int width()
   {
@@ -69,6 +119,22 @@ final class TTableColumn
   @Override
   public String headerContentFormatted()
   {
-    return formattedContent(this.name, this.width);
+    return this.nameFormatted;
+  }
+
+  @Override
+  public TColumnAlignment alignment()
+  {
+    return this.alignment;
+  }
+
+  /**
+   * @return The width of the widest fractional part of any cell in a
+   * {@link TColumnAlignment#DECIMAL} column
+   */
+
+  int fractionWidth()
+  {
+    return this.fractionWidth;
   }
 }
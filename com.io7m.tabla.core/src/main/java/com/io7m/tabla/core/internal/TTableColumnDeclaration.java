@@ -17,6 +17,7 @@
 
 package com.io7m.tabla.core.internal;
 
+import com.io7m.tabla.core.TColumnAlignment;
 import com.io7m.tabla.core.TColumnWidthConstraint;
 import com.io7m.tabla.core.TColumnWidthConstraintMaximumAny;
 import com.io7m.tabla.core.TColumnWidthConstraintMaximumAtMost;
@@ -24,9 +25,11 @@ import com.io7m.tabla.core.TColumnWidthConstraintMaximumType;
 import com.io7m.tabla.core.TColumnWidthConstraintMinimumAny;
 import com.io7m.tabla.core.TColumnWidthConstraintMinimumAtLeast;
 import com.io7m.tabla.core.TColumnWidthConstraintMinimumFitContent;
+import com.io7m.tabla.core.TColumnWidthConstraintMinimumFitContentPercentile;
 import com.io7m.tabla.core.TColumnWidthConstraintMinimumFitContentOrHeader;
 import com.io7m.tabla.core.TColumnWidthConstraintMinimumFitHeader;
 import com.io7m.tabla.core.TColumnWidthConstraintMinimumType;
+import com.io7m.tabla.core.TNumberFormatType;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.variables.IntVar;
 
@@ -36,27 +39,64 @@ import static org.chocosolver.solver.variables.IntVar.MAX_INT_BOUND;
 
 final class TTableColumnDeclaration
 {
-  private final Model model;
   private final int index;
   private final String name;
   private final TColumnWidthConstraint constraint;
-  private int maximumContentLength;
+  private final TColumnAlignment alignment;
+  private final TNumberFormatType numberFormat;
 
   public String name()
   {
     return this.name;
   }
 
-  public IntVar createModelVariable()
+  public TColumnAlignment alignment()
+  {
+    return this.alignment;
+  }
+
+  public TNumberFormatType numberFormat()
+  {
+    return this.numberFormat;
+  }
+
+  /**
+   * @return A histogram of content lengths if the width of this column
+   * depends on a percentile of its content lengths, or {@code null}
+   */
+
+  public TLengthHistogram createHistogram()
+  {
+    if (this.constraint.minimum()
+      instanceof final TColumnWidthConstraintMinimumFitContentPercentile c) {
+      return new TLengthHistogram(c.percentile());
+    }
+    return null;
+  }
+
+  /**
+   * Create the width variable of this column.
+   *
+   * @param model                The model
+   * @param maximumContentLength The content length to fit; the maximum
+   *                             content length, or the length at the
+   *                             percentile of a percentile constraint
+   *
+   * @return The variable
+   */
+
+  public IntVar createModelVariable(
+    final Model model,
+    final int maximumContentLength)
   {
     final var cc =
       this.constraint;
     final var varName =
       "ColumnWidth[%d]".formatted(Integer.valueOf(this.index));
 
-    return this.model.intVar(
+    return model.intVar(
       varName,
-      this.minimumOf(cc.minimum()),
+      this.minimumOf(cc.minimum(), maximumContentLength),
       maximumOf(cc.maximum())
     );
   }
@@ -74,19 +114,23 @@ final class TTableColumnDeclaration
   }
 
   private int minimumOf(
-    final TColumnWidthConstraintMinimumType minimum)
+    final TColumnWidthConstraintMinimumType minimum,
+    final int maximumContentLength)
   {
     if (minimum instanceof TColumnWidthConstraintMinimumAny) {
       return 0;
     }
     if (minimum instanceof final TColumnWidthConstraintMinimumFitContent c) {
-      return this.maximumContentLength;
+      return maximumContentLength;
+    }
+    if (minimum instanceof final TColumnWidthConstraintMinimumFitContentPercentile c) {
+      return maximumContentLength;
     }
     if (minimum instanceof final TColumnWidthConstraintMinimumFitHeader c) {
       return this.name.length();
     }
     if (minimum instanceof final TColumnWidthConstraintMinimumFitContentOrHeader c) {
-      return Math.max(this.name.length(), this.maximumContentLength);
+      return Math.max(this.name.length(), maximumContentLength);
     }
     if (minimum instanceof final TColumnWidthConstraintMinimumAtLeast c) {
       return c.size();
@@ -95,26 +139,21 @@ final class TTableColumnDeclaration
   }
 
   TTableColumnDeclaration(
-    final Model inModel,
     final int inIndex,
     final String inName,
-    final TColumnWidthConstraint inConstraint)
+    final TColumnWidthConstraint inConstraint,
+    final TColumnAlignment inAlignment,
+    final TNumberFormatType inNumberFormat)
   {
-    this.model =
-      Objects.requireNonNull(inModel, "inModel");
     this.index =
       inIndex;
     this.name =
       Objects.requireNonNull(inName, "name");
     this.constraint =
       Objects.requireNonNull(inConstraint, "inConstraint");
-    this.maximumContentLength = 0;
-  }
-
-  public void notifyContentLength(
-    final int length)
-  {
-    this.maximumContentLength =
-      Math.max(this.maximumContentLength, length);
+    this.alignment =
+      Objects.requireNonNull(inAlignment, "inAlignment");
+    this.numberFormat =
+      Objects.requireNonNull(inNumberFormat, "inNumberFormat");
   }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableColumnType;
+import com.io7m.tabla.core.TTableRowType;
+import com.io7m.tabla.core.TTableType;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A view of a contiguous range of columns of a table. The columns retain
+ * their existing widths, and cells outside the range are never accessed.
+ */
+
+final class TTableColumnWindow implements TTableType
+{
+  private final TTableType table;
+  private final int firstColumn;
+  private final int columnCount;
+
+  TTableColumnWindow(
+    final TTableType inTable,
+    final int inFirstColumn,
+    final int inColumnCount)
+  {
+    this.table =
+      Objects.requireNonNull(inTable, "table");
+    this.firstColumn =
+      inFirstColumn;
+    this.columnCount =
+      inColumnCount;
+  }
+
+  @Override
+  public int rowCount()
+  {
+    return this.table.rowCount();
+  }
+
+  @Override
+  public TTableRowType rowOf(
+    final int row)
+  {
+    return new Row(
+      this.table.rowOf(row),
+      this.firstColumn,
+      this.columnCount
+    );
+  }
+
+  @Override
+  public int columnCount()
+  {
+    return this.columnCount;
+  }
+
+  @Override
+  public TTableColumnType columnOf(
+    final int column)
+  {
+    Objects.checkIndex(column, this.columnCount);
+    return this.table.columnOf(this.firstColumn + column);
+  }
+
+  private record Row(
+    TTableRowType row,
+    int firstColumn,
+    int columnCount)
+    implements TTableRowType
+  {
+    @Override
+    public String cellContentRaw(
+      final int index)
+    {
+      Objects.checkIndex(index, this.columnCount);
+      return this.row.cellContentRaw(this.firstColumn + index);
+    }
+
+    @Override
+    public List<String> cellContentFormatted(
+      final int index)
+    {
+      Objects.checkIndex(index, this.columnCount);
+      return this.row.cellContentFormatted(this.firstColumn + index);
+    }
+
+    @Override
+    public int height()
+    {
+      var height = 0;
+      for (int index = 0; index < this.columnCount; ++index) {
+        height = Math.max(
+          height,
+          this.row.cellContentFormatted(this.firstColumn + index).size()
+        );
+      }
+      return height;
+    }
+  }
+}
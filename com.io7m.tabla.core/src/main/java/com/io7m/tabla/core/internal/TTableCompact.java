@@ -0,0 +1,233 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TNumberFormatType;
+import com.io7m.tabla.core.TTableColumnType;
+import com.io7m.tabla.core.TTableRowType;
+import com.io7m.tabla.core.TTableType;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A table built with compact cell storage. Each cell is described by a kind
+ * and a {@code long} value, held in primitive arrays by column: numeric
+ * cells hold their value, and text cells hold the address of their content
+ * in the chunks of a {@link TCellArena}. No objects are held per cell; the
+ * content of a cell is decoded and wrapped each time it is read.
+ */
+
+final class TTableCompact implements TTableType
+{
+  static final byte KIND_LONG = 1;
+  static final byte KIND_DOUBLE = 2;
+  static final byte KIND_LATIN1 = 3;
+  static final byte KIND_UTF16 = 4;
+
+  private final List<TTableColumn> columns;
+  private final int rowCount;
+  private final long[][] values;
+  private final byte[][] kinds;
+  private final TNumberFormatType[] formats;
+  private final byte[][] chunks;
+
+  TTableCompact(
+    final List<TTableColumn> inColumns,
+    final int inRowCount,
+    final long[][] inValues,
+    final byte[][] inKinds,
+    final TNumberFormatType[] inFormats,
+    final byte[][] inChunks)
+  {
+    this.columns =
+      Objects.requireNonNull(inColumns, "columns");
+    this.rowCount =
+      inRowCount;
+    this.values =
+      Objects.requireNonNull(inValues, "values");
+    this.kinds =
+      Objects.requireNonNull(inKinds, "kinds");
+    this.formats =
+      Objects.requireNonNull(inFormats, "formats");
+    this.chunks =
+      Objects.requireNonNull(inChunks, "chunks");
+  }
+
+  @Override
+  public int rowCount()
+  {
+    return this.rowCount;
+  }
+
+  @Override
+  public TTableRowType rowOf(
+    final int row)
+  {
+    Objects.checkIndex(row, this.rowCount);
+    return new Row(this, row);
+  }
+
+  @Override
+  public int columnCount()
+  {
+    return this.columns.size();
+  }
+
+  @Override
+  public TTableColumnType columnOf(
+    final int column)
+  {
+    return this.columns.get(column);
+  }
+
+  /**
+   * @param row    The row index
+   * @param column The column index
+   *
+   * @return {@code true} if the given cell holds a number
+   */
+
+  boolean isNumeric(
+    final int row,
+    final int column)
+  {
+    final var kind = this.kinds[column][row];
+    return kind == KIND_LONG || kind == KIND_DOUBLE;
+  }
+
+  /**
+   * @param row    The row index
+   * @param column The column index
+   *
+   * @return {@code true} if the given cell holds a {@code long} value
+   */
+
+  boolean isLong(
+    final int row,
+    final int column)
+  {
+    return this.kinds[column][row] == KIND_LONG;
+  }
+
+  /**
+   * @param row    The row index
+   * @param column The column index
+   *
+   * @return The exact value of the given cell if it holds a {@code long}
+   * value
+   *
+   * @see #isLong(int, int)
+   */
+
+  long longValue(
+    final int row,
+    final int column)
+  {
+    return this.values[column][row];
+  }
+
+  /**
+   * @param row    The row index
+   * @param column The column index
+   *
+   * @return The value of the given cell if it holds a number, read directly
+   * from the value arrays without formatting, or {@code NaN}
+   */
+
+  double numericValue(
+    final int row,
+    final int column)
+  {
+    final var value = this.values[column][row];
+    return switch (this.kinds[column][row]) {
+      case KIND_LONG -> (double) value;
+      case KIND_DOUBLE -> Double.longBitsToDouble(value);
+      default -> Double.NaN;
+    };
+  }
+
+  String contentRaw(
+    final int row,
+    final int column)
+  {
+    final var value = this.values[column][row];
+    return switch (this.kinds[column][row]) {
+      case KIND_LONG -> this.formats[column].format(value);
+      case KIND_DOUBLE ->
+        this.formats[column].format(Double.longBitsToDouble(value));
+      case KIND_LATIN1 -> TCellArena.decode(this.chunks, value, true);
+      default -> TCellArena.decode(this.chunks, value, false);
+    };
+  }
+
+  /**
+   * A row of a compact table. The wrapped content of each cell is retained
+   * for the lifetime of the row object, which typically lasts only as long
+   * as the rendering of the row.
+   */
+
+  private static final class Row implements TTableRowType
+  {
+    private final TTableCompact table;
+    private final int row;
+    private final List<?>[] formatted;
+
+    Row(
+      final TTableCompact inTable,
+      final int inRow)
+    {
+      this.table = inTable;
+      this.row = inRow;
+      this.formatted = new List<?>[inTable.columnCount()];
+    }
+
+    @Override
+    public String cellContentRaw(
+      final int index)
+    {
+      Objects.checkIndex(index, this.formatted.length);
+      return this.table.contentRaw(this.row, index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> cellContentFormatted(
+      final int index)
+    {
+      var result = this.formatted[index];
+      if (result == null) {
+        result = TTableCell.wrap(
+          this.table.columnOf(index).width(),
+          this.cellContentRaw(index)
+        );
+        this.formatted[index] = result;
+      }
+      return (List<String>) result;
+    }
+
+    @Override
+    public int height()
+    {
+      var height = 0;
+      for (int index = 0; index < this.formatted.length; ++index) {
+        height = Math.max(height, this.cellContentFormatted(index).size());
+      }
+      return height;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.tabla.core.TException;
+import com.io7m.tabla.core.TTableWidthConstraintAny;
+import com.io7m.tabla.core.TTableWidthConstraintRange;
+import com.io7m.tabla.core.TTableWidthConstraintType;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.chocosolver.solver.variables.IntVar.MAX_INT_BOUND;
+
+/**
+ * The width constraints of a table: the declarations of its columns, and the
+ * constraint on the table width. The constraints are retained by built
+ * tables so that views of a table can solve the widths of their columns
+ * again. Each solve uses a fresh model.
+ *
+ * @param columns         The column declarations
+ * @param widthConstraint The table width constraint
+ */
+
+record TTableConstraints(
+  List<TTableColumnDeclaration> columns,
+  TTableWidthConstraintType widthConstraint)
+{
+  TTableConstraints
+  {
+    columns = List.copyOf(columns);
+    Objects.requireNonNull(widthConstraint, "widthConstraint");
+  }
+
+  /**
+   * @param indices The indices of the columns to retain
+   *
+   * @return These constraints restricted to the given columns, in order
+   */
+
+  TTableConstraints project(
+    final int[] indices)
+  {
+    final var projected =
+      new ArrayList<TTableColumnDeclaration>(indices.length);
+    for (final var index : indices) {
+      projected.add(this.columns.get(index));
+    }
+    return new TTableConstraints(projected, this.widthConstraint);
+  }
+
+  /**
+   * Solve the column widths.
+   *
+   * @param maximumContentLengths The maximum content length of each column
+   *
+   * @return The width of each column
+   *
+   * @throws TException If the constraints cannot be satisfied
+   */
+
+  int[] solve(
+    final int[] maximumContentLengths)
+    throws TException
+  {
+    final var model =
+      new Model();
+    final IntVar tableWidthVar =
+      this.createTableWidthVariable(model);
+
+    final var columnCount =
+      this.columns.size();
+    Preconditions.checkPreconditionV(
+      maximumContentLengths.length == columnCount,
+      "Content lengths %d must match the column count %d",
+      Integer.valueOf(maximumContentLengths.length),
+      Integer.valueOf(columnCount)
+    );
+    final IntVar[] columnVars =
+      new IntVar[columnCount];
+
+    for (int index = 0; index < columnVars.length; ++index) {
+      columnVars[index] =
+        this.columns.get(index)
+          .createModelVariable(model, maximumContentLengths[index]);
+    }
+
+    final var tableColumnSumVar =
+      model.sum("TableColumnWidthsSum", columnVars);
+
+    final var tableWidthConstraint =
+      model.arithm(tableColumnSumVar, "=", tableWidthVar);
+
+    tableWidthConstraint.setName("TableColumnWidthsSum = TableWidth");
+    switch (this.widthConstraint.hardness()) {
+      case SOFT_CONSTRAINT -> tableWidthConstraint.reify();
+      case HARD_CONSTRAINT -> tableWidthConstraint.post();
+    }
+
+    solveConstraints(model);
+
+    final var widths = new int[columnCount];
+    for (int index = 0; index < columnCount; ++index) {
+      widths[index] = columnVars[index].getValue();
+    }
+    return widths;
+  }
+
+  private static void solveConstraints(
+    final Model model)
+    throws TException
+  {
+    final var solver =
+      model.getSolver();
+    final var solved =
+      solver.solve();
+
+    if (!solved) {
+      throw errorSolveFailed(model);
+    }
+  }
+
+  private static TException errorSolveFailed(
+    final Model model)
+  {
+    final var attributes = new TreeMap<String, String>();
+    for (final var v : model.getVars()) {
+      if (v.getName().startsWith("cste")) {
+        continue;
+      }
+
+      if (v instanceof final IntVar iv) {
+        final String chosen;
+        if (iv.isInstantiated()) {
+          chosen = Integer.toString(iv.getValue());
+        } else {
+          chosen = "<indeterminate>";
+        }
+
+        final var value =
+          String.format(
+            "Allowed Range [%d, %d], Chosen Value (%s)",
+            Integer.valueOf(iv.getLB()),
+            Integer.valueOf(iv.getUB()),
+            chosen
+          );
+        attributes.put("Variable[%s]".formatted(v.getName()), value);
+      }
+    }
+
+    for (final var c : model.getCstrs()) {
+      attributes.put(
+        "Constraint[%s]".formatted(c.getName()),
+        c.isSatisfied().toString()
+      );
+    }
+
+    return new TException(
+      "Unable to solve table constraints.",
+      "error-constraints",
+      attributes,
+      Optional.empty()
+    );
+  }
+
+  private IntVar createTableWidthVariable(
+    final Model model)
+  {
+    if (this.widthConstraint instanceof final TTableWidthConstraintAny any) {
+      return model.intVar(
+        "TableWidth",
+        0,
+        MAX_INT_BOUND,
+        true
+      );
+    }
+
+    if (this.widthConstraint instanceof final TTableWidthConstraintRange ranged) {
+      return model.intVar(
+        "TableWidth",
+        ranged.minimumSize(),
+        ranged.maximumSize()
+      );
+    }
+
+    throw new IllegalStateException();
+  }
+}
@@ -17,27 +17,33 @@
 
 package com.io7m.tabla.core.internal;
 
+import com.io7m.tabla.core.TCSVConfiguration;
+import com.io7m.tabla.core.TCSVQuoting;
 import com.io7m.tabla.core.TTableRendererType;
 import com.io7m.tabla.core.TTableType;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import static org.apache.commons.text.StringEscapeUtils.escapeCsv;
+import java.io.IOException;
+import java.util.Objects;
 
 /**
- * A CSV table renderer.
+ * A CSV table renderer. Each field is examined exactly once: characters are
+ * copied to the output in runs, and quoting begins at the first character
+ * that requires it.
  */
 
 public final class TTableRendererCSV
-  implements TTableRendererType
+  extends TTableRendererLineBased
 {
   private static final TTableRendererCSV INSTANCE =
-    new TTableRendererCSV();
+    new TTableRendererCSV(TCSVConfiguration.defaults());
 
-  private TTableRendererCSV()
-  {
+  private final TCSVConfiguration configuration;
 
+  private TTableRendererCSV(
+    final TCSVConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
   }
 
   /**
@@ -49,39 +55,97 @@ public final class TTableRendererCSV
     return INSTANCE;
   }
 
+  /**
+   * @param configuration The CSV configuration
+   *
+   * @return A CSV table renderer.
+   */
+
+  public static TTableRendererType csv(
+    final TCSVConfiguration configuration)
+  {
+    if (Objects.equals(configuration, INSTANCE.configuration)) {
+      return INSTANCE;
+    }
+    return new TTableRendererCSV(configuration);
+  }
+
+  @Override
+  String lineSeparator()
+  {
+    return this.configuration.recordSeparator();
+  }
+
   @Override
-  public List<String> renderLines(
-    final TTableType table)
+  void renderTo(
+    final TTableType table,
+    final TTableLineSinkType sink)
+    throws IOException
   {
     final var lineBuffer = new StringBuilder(128);
     final var maxColumns = table.columnCount();
     for (int index = 0; index < maxColumns; ++index) {
-      final var column = table.columnOf(index);
-      lineBuffer.append('"');
-      lineBuffer.append(escapeCsv(column.headerContentRaw()));
-      lineBuffer.append('"');
-      if (index + 1 < maxColumns) {
-        lineBuffer.append(',');
+      if (index > 0) {
+        lineBuffer.append(this.configuration.delimiter());
       }
+      this.writeField(lineBuffer, table.columnOf(index).headerContentRaw());
     }
+    sink.line(lineBuffer);
 
     final var maxRows = table.rowCount();
-    final var output = new ArrayList<String>(maxRows);
-    output.add(lineBuffer.toString());
-
     for (int index = 0; index < maxRows; ++index) {
       final var row = table.rowOf(index);
       lineBuffer.setLength(0);
       for (int cellIndex = 0; cellIndex < maxColumns; ++cellIndex) {
-        lineBuffer.append('"');
-        lineBuffer.append(escapeCsv(row.cellContentRaw(cellIndex)));
-        lineBuffer.append('"');
-        if (cellIndex + 1 < maxColumns) {
-          lineBuffer.append(',');
+        if (cellIndex > 0) {
+          lineBuffer.append(this.configuration.delimiter());
         }
+        this.writeField(lineBuffer, row.cellContentRaw(cellIndex));
+      }
+      sink.line(lineBuffer);
+    }
+  }
+
+  private void writeField(
+    final StringBuilder output,
+    final String text)
+  {
+    if (this.configuration.quoting() == TCSVQuoting.QUOTE_ALWAYS) {
+      output.append('"');
+      writeEscaped(output, text, 0);
+      output.append('"');
+      return;
+    }
+
+    final var delimiter = this.configuration.delimiter();
+    final var length = text.length();
+    for (int index = 0; index < length; ++index) {
+      final var c = text.charAt(index);
+      if (c == '"' || c == delimiter || c == '\r' || c == '\n') {
+        output.append('"');
+        output.append(text, 0, index);
+        writeEscaped(output, text, index);
+        output.append('"');
+        return;
+      }
+    }
+    output.append(text);
+  }
+
+  private static void writeEscaped(
+    final StringBuilder output,
+    final String text,
+    final int start)
+  {
+    final var length = text.length();
+    var runStart = start;
+    for (int index = start; index < length; ++index) {
+      if (text.charAt(index) == '"') {
+        output.append(text, runStart, index + 1);
+        output.append('"');
+        runStart = index + 1;
       }
-      output.add(lineBuffer.toString());
     }
-    return List.copyOf(output);
+    output.append(text, runStart, length);
   }
 }
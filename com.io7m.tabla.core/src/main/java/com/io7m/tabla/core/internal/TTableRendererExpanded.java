@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+
+/**
+ * An expanded table renderer, in the manner of the expanded display mode
+ * of {@code psql}. Each row is rendered as a block of lines, one per column,
+ * containing the column header and the cell value. Only values are wrapped,
+ * and they are wrapped from the raw cell content to a single width derived
+ * from the widest header, so the widths solved for the table are not used.
+ */
+
+public final class TTableRendererExpanded
+  extends TTableRendererLineBased
+{
+  private static final String SEPARATOR = " | ";
+
+  /*
+   * The narrowest value column that still leaves room for a hyphen when a
+   * word must be split. Headers wider than the maximum width cause lines
+   * to exceed it rather than shrinking values below this.
+   */
+
+  private static final int MINIMUM_VALUE_WIDTH = 2;
+
+  private final int maximumWidth;
+
+  private TTableRendererExpanded(
+    final int inMaximumWidth)
+  {
+    this.maximumWidth = inMaximumWidth;
+  }
+
+  /**
+   * @param maximumWidth The maximum width of rendered lines
+   *
+   * @return An expanded table renderer
+   */
+
+  public static TTableRendererType expanded(
+    final int maximumWidth)
+  {
+    Preconditions.checkPreconditionV(
+      maximumWidth > 0,
+      "Maximum width %d must be positive",
+      Integer.valueOf(maximumWidth)
+    );
+    return new TTableRendererExpanded(maximumWidth);
+  }
+
+  @Override
+  void renderTo(
+    final TTableType table,
+    final TTableLineSinkType sink)
+    throws IOException
+  {
+    final var maxColumns = table.columnCount();
+    if (maxColumns == 0) {
+      return;
+    }
+
+    var headerWidth = 0;
+    for (int index = 0; index < maxColumns; ++index) {
+      headerWidth = Math.max(
+        headerWidth,
+        table.columnOf(index).headerContentRaw().length()
+      );
+    }
+
+    final var valueWidth =
+      Math.max(
+        MINIMUM_VALUE_WIDTH,
+        this.maximumWidth - headerWidth - SEPARATOR.length()
+      );
+    final var lineWidth =
+      headerWidth + SEPARATOR.length() + valueWidth;
+    final var lineBuffer =
+      new StringBuilder(lineWidth);
+
+    final var maxRows = table.rowCount();
+    for (int rowIndex = 0; rowIndex < maxRows; ++rowIndex) {
+      lineBuffer.setLength(0);
+      lineBuffer.append("-[ RECORD ");
+      lineBuffer.append(rowIndex + 1);
+      lineBuffer.append(" ]");
+      TPadding.fill(lineBuffer, '-', lineWidth - lineBuffer.length());
+      sink.line(lineBuffer);
+
+      final var row = table.rowOf(rowIndex);
+      for (int cellIndex = 0; cellIndex < maxColumns; ++cellIndex) {
+        final var header = table.columnOf(cellIndex).headerContentRaw();
+        final var lines =
+          TTableCell.wrap(valueWidth, row.cellContentRaw(cellIndex));
+
+        for (int line = 0; line < lines.size(); ++line) {
+          lineBuffer.setLength(0);
+          if (line == 0) {
+            lineBuffer.append(header);
+            TPadding.pad(lineBuffer, headerWidth - header.length());
+          } else {
+            TPadding.pad(lineBuffer, headerWidth);
+          }
+
+          final var text = lines.get(line);
+          if (text.isEmpty()) {
+            lineBuffer.append(" |");
+          } else {
+            lineBuffer.append(SEPARATOR);
+            lineBuffer.append(text);
+          }
+          sink.line(lineBuffer);
+        }
+      }
+    }
+  }
+}
@@ -17,14 +17,21 @@
 
 package com.io7m.tabla.core.internal;
 
+import com.io7m.tabla.core.TTableColumnType;
 import com.io7m.tabla.core.TTableRendererType;
 import com.io7m.tabla.core.TTableRowType;
+import com.io7m.tabla.core.TTableStyleType;
 import com.io7m.tabla.core.TTableType;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
 import static com.io7m.tabla.core.internal.TTableRendererFramed.FramePieces.CORNER_BOTTOM_LEFT;
@@ -41,20 +48,79 @@ import static com.io7m.tabla.core.internal.TTableRendererFramed.FramePieces.JUNC
 import static com.io7m.tabla.core.internal.TTableRendererFramed.FramePieces.JUNCTION_UP_DOWN_RIGHT;
 
 /**
- * A human-readable-computer-hostile table renderer.
+ * A human-readable-computer-hostile table renderer. Renderers hold no mutable
+ * state; all scratch space is allocated per call, and so a single instance
+ * may be used from any number of threads concurrently.
+ *
+ * <p>A renderer may optionally be given a fork/join pool. Tables with more
+ * than {@link #PARALLEL_BLOCK_ROWS} rows are then split into contiguous blocks
+ * of rows, each block is rendered into its own buffer on the pool, and the
+ * blocks are joined in order.</p>
+ *
+ * <p>A renderer may optionally be given a source of cell styles. The content
+ * and padding of each styled cell is surrounded by a precomputed ANSI SGR
+ * sequence and a reset sequence. Styles never affect the layout of the
+ * table.</p>
  */
 
 public final class TTableRendererFramed
-  implements TTableRendererType
+  extends TTableRendererLineBased
 {
-  private final Function<FramePieces, Character> charMap;
-  private final StringBuilder lineBuffer;
+  /**
+   * The number of rows rendered by each task in parallel rendering.
+   */
+
+  public static final int PARALLEL_BLOCK_ROWS = 1024;
+
+  private static final TTableRendererFramed UNICODE =
+    new TTableRendererFramed(
+      TTableRendererFramed::frameUnicode,
+      Optional.empty(),
+      Optional.empty()
+    );
+  private static final TTableRendererFramed ASCII =
+    new TTableRendererFramed(
+      TTableRendererFramed::frameAscii,
+      Optional.empty(),
+      Optional.empty()
+    );
+
+  private final char[] charMap;
+  private final Optional<ForkJoinPool> pool;
+  private final Optional<TTableStyleType> styles;
 
   private TTableRendererFramed(
-    final Function<FramePieces, Character> inCharMap)
+    final Function<FramePieces, Character> inCharMap,
+    final Optional<ForkJoinPool> inPool,
+    final Optional<TTableStyleType> inStyles)
   {
-    this.charMap = Objects.requireNonNull(inCharMap, "charMap");
-    this.lineBuffer = new StringBuilder(128);
+    Objects.requireNonNull(inCharMap, "charMap");
+
+    final var pieces = FramePieces.values();
+    this.charMap = new char[pieces.length];
+    for (final var piece : pieces) {
+      this.charMap[piece.ordinal()] = inCharMap.apply(piece).charValue();
+    }
+    this.pool = Objects.requireNonNull(inPool, "pool");
+    this.styles = Objects.requireNonNull(inStyles, "styles");
+  }
+
+  /**
+   * @return A unicode table renderer
+   */
+
+  static TTableRendererFramed unicodeFramed()
+  {
+    return UNICODE;
+  }
+
+  /**
+   * @return An ASCII table renderer
+   */
+
+  static TTableRendererFramed asciiFramed()
+  {
+    return ASCII;
   }
 
   /**
@@ -63,7 +129,7 @@ public final class TTableRendererFramed
 
   public static TTableRendererType unicode()
   {
-    return new TTableRendererFramed(TTableRendererFramed::frameUnicode);
+    return UNICODE;
   }
 
   /**
@@ -72,7 +138,71 @@ public final class TTableRendererFramed
 
   public static TTableRendererType ascii()
   {
-    return new TTableRendererFramed(TTableRendererFramed::frameAscii);
+    return ASCII;
+  }
+
+  /**
+   * @param pool The pool used to render blocks of rows
+   *
+   * @return A unicode table renderer that renders large tables in parallel
+   */
+
+  public static TTableRendererType unicodeParallel(
+    final ForkJoinPool pool)
+  {
+    return new TTableRendererFramed(
+      TTableRendererFramed::frameUnicode,
+      Optional.of(pool),
+      Optional.empty()
+    );
+  }
+
+  /**
+   * @param pool The pool used to render blocks of rows
+   *
+   * @return An ASCII table renderer that renders large tables in parallel
+   */
+
+  public static TTableRendererType asciiParallel(
+    final ForkJoinPool pool)
+  {
+    return new TTableRendererFramed(
+      TTableRendererFramed::frameAscii,
+      Optional.of(pool),
+      Optional.empty()
+    );
+  }
+
+  /**
+   * @param styles The source of cell styles
+   *
+   * @return A unicode table renderer that styles cells with ANSI sequences
+   */
+
+  public static TTableRendererType unicodeStyled(
+    final TTableStyleType styles)
+  {
+    return new TTableRendererFramed(
+      TTableRendererFramed::frameUnicode,
+      Optional.empty(),
+      Optional.of(styles)
+    );
+  }
+
+  /**
+   * @param styles The source of cell styles
+   *
+   * @return An ASCII table renderer that styles cells with ANSI sequences
+   */
+
+  public static TTableRendererType asciiStyled(
+    final TTableStyleType styles)
+  {
+    return new TTableRendererFramed(
+      TTableRendererFramed::frameAscii,
+      Optional.empty(),
+      Optional.of(styles)
+    );
   }
 
   enum FramePieces
@@ -135,200 +265,428 @@ public final class TTableRendererFramed
   private char edge(
     final FramePieces p)
   {
-    return this.charMap.apply(p).charValue();
+    return this.charMap[p.ordinal()];
   }
 
   @Override
-  public List<String> renderLines(
-    final TTableType table)
+  void renderTo(
+    final TTableType table,
+    final TTableLineSinkType sink)
+    throws IOException
   {
     if (table.columnCount() == 0) {
-      return List.of();
+      return;
     }
 
-    final var output = new ArrayList<String>();
-    final var columnBoundaries = new HashSet<Integer>();
-    var framedWidth = 0;
-    for (int index = 0; index < table.columnCount(); ++index) {
-      columnBoundaries.add(Integer.valueOf(framedWidth));
-      // One character for the frame
-      framedWidth += 1;
-      // One character of padding
-      framedWidth += 1;
-      framedWidth += table.columnOf(index).width();
-      // One character of padding
-      framedWidth += 1;
-    }
-    // One character for the closing frame
-    framedWidth += 1;
+    final var lineBuffer =
+      new StringBuilder(framedWidth(table));
 
-    output.add(this.renderTableFrameTop(columnBoundaries, framedWidth));
-    output.add(this.renderTableHeader(table));
+    sink.line(this.renderTableFrameTop(lineBuffer, table));
+    sink.line(this.renderTableHeader(lineBuffer, table));
 
-    if (table.rowCount() > 0) {
-      output.add(this.renderTableFrameMiddle(columnBoundaries, framedWidth));
+    final var rowCount = table.rowCount();
+    if (rowCount == 0) {
+      sink.line(this.renderTableFrameBottom(lineBuffer, table));
+      return;
+    }
+
+    /*
+     * The divider between the header and the rows is identical to the
+     * divider between each row, so the same string is used for all of them.
+     */
+
+    final var divider =
+      this.renderTableFrameMiddle(lineBuffer, table).toString();
+    sink.line(divider);
+
+    if (this.pool.isPresent() && rowCount > PARALLEL_BLOCK_ROWS) {
+      this.renderTableMainRowsParallel(
+        this.pool.get(),
+        table,
+        divider,
+        sink
+      );
     } else {
-      output.add(this.renderTableFrameBottom(columnBoundaries, framedWidth));
-      return List.copyOf(output);
+      this.renderTableMainRows(
+        lineBuffer,
+        table,
+        divider,
+        0,
+        rowCount,
+        sink
+      );
     }
 
-    this.renderTableMainRows(table, output);
-    output.add(this.renderTableFrameBottom(columnBoundaries, framedWidth));
-    return List.copyOf(output);
+    sink.line(this.renderTableFrameBottom(lineBuffer, table));
+  }
+
+  static int framedWidth(
+    final TTableType table)
+  {
+    final var columnCount = table.columnCount();
+
+    /*
+     * Each column has one character for the frame, and one character of
+     * padding on each side. There is one character for the closing frame.
+     */
+
+    return table.contentWidth() + (columnCount * 3) + 1;
   }
 
-  private String renderTableHeader(
+  private CharSequence renderTableHeader(
+    final StringBuilder lineBuffer,
     final TTableType table)
   {
-    this.lineBuffer.setLength(0);
+    lineBuffer.setLength(0);
     for (int index = 0; index < table.columnCount(); ++index) {
       final var column = table.columnOf(index);
-      this.lineBuffer.append(this.edge(EDGE_LEFT));
-      this.lineBuffer.append(' ');
-      this.lineBuffer.append(column.headerContentFormatted());
-      this.lineBuffer.append(' ');
+      lineBuffer.append(this.edge(EDGE_LEFT));
+      lineBuffer.append(' ');
+
+      if (this.styles.isPresent()) {
+        final var style =
+          this.styles.get().headerStyle(table, index);
+        final var sequence = TANSI.sequenceOf(style);
+        lineBuffer.append(sequence);
+        TColumnAligner.appendAlignedHeader(
+          lineBuffer,
+          column,
+          column.headerContentFormatted()
+        );
+        if (!sequence.isEmpty()) {
+          lineBuffer.append(TANSI.RESET);
+        }
+      } else {
+        TColumnAligner.appendAlignedHeader(
+          lineBuffer,
+          column,
+          column.headerContentFormatted()
+        );
+      }
+      lineBuffer.append(' ');
     }
-    this.lineBuffer.append(this.edge(EDGE_RIGHT));
-    return this.lineBuffer.toString();
+    lineBuffer.append(this.edge(EDGE_RIGHT));
+    return lineBuffer;
   }
 
-  private void renderTableMainRows(
+  private void renderTableMainRowsParallel(
+    final ForkJoinPool forkJoinPool,
     final TTableType table,
-    final ArrayList<String> output)
+    final String divider,
+    final TTableLineSinkType sink)
+    throws IOException
   {
-    for (int rowIndex = 0; rowIndex < table.rowCount(); ++rowIndex) {
-      final var row = table.rowOf(rowIndex);
-      final var rowHeight = row.height();
-      for (int rowLine = 0; rowLine < rowHeight; ++rowLine) {
-        output.add(this.renderTableMainRowsOneLine(table, row, rowLine));
-      }
-      if (rowIndex + 1 < table.rowCount()) {
-        output.add(this.renderTableMainRowsDivider(table, row));
+    final var rowCount =
+      table.rowCount();
+    final var blockCount =
+      (rowCount + PARALLEL_BLOCK_ROWS - 1) / PARALLEL_BLOCK_ROWS;
+    final var blocks =
+      new AtomicReferenceArray<List<String>>(blockCount);
+
+    forkJoinPool.invoke(
+      new RenderBlocks(table, divider, blocks, 0, blockCount)
+    );
+
+    for (int index = 0; index < blockCount; ++index) {
+      for (final var line : blocks.get(index)) {
+        sink.line(line);
       }
     }
   }
 
-  private String renderTableMainRowsDivider(
+  private void renderTableMainRows(
+    final StringBuilder lineBuffer,
     final TTableType table,
-    final TTableRowType row)
+    final String divider,
+    final int rowStart,
+    final int rowEnd,
+    final TTableLineSinkType sink)
+    throws IOException
   {
-    this.lineBuffer.setLength(0);
-    for (int cellIndex = 0; cellIndex < table.columnCount(); ++cellIndex) {
-      if (cellIndex == 0) {
-        this.lineBuffer.append(this.edge(JUNCTION_UP_DOWN_RIGHT));
-      } else {
-        this.lineBuffer.append(this.edge(JUNCTION_CROSS));
+    final var rowCount = table.rowCount();
+    final String[] cellStyles;
+    if (this.styles.isPresent()) {
+      cellStyles = new String[table.columnCount()];
+    } else {
+      cellStyles = null;
+    }
+
+    for (int rowIndex = rowStart; rowIndex < rowEnd; ++rowIndex) {
+      this.renderTableRow(lineBuffer, table, rowIndex, cellStyles, sink);
+      if (rowIndex + 1 < rowCount) {
+        sink.line(divider);
       }
+    }
+  }
+
+  /**
+   * Render the lines of a single row, without any surrounding dividers.
+   *
+   * @param lineBuffer The line buffer
+   * @param table      The table
+   * @param rowIndex   The row index
+   * @param sink       The sink
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void renderRow(
+    final StringBuilder lineBuffer,
+    final TTableType table,
+    final int rowIndex,
+    final TTableLineSinkType sink)
+    throws IOException
+  {
+    final String[] cellStyles;
+    if (this.styles.isPresent()) {
+      cellStyles = new String[table.columnCount()];
+    } else {
+      cellStyles = null;
+    }
+    this.renderTableRow(lineBuffer, table, rowIndex, cellStyles, sink);
+  }
+
+  /**
+   * @param table The table
+   *
+   * @return The divider placed between rows of the given table
+   */
 
-      this.lineBuffer.append(this.edge(EDGE_BOTTOM));
-      final var cellWidth = table.columnOf(cellIndex).width();
-      for (int x = 0; x < cellWidth; ++x) {
-        this.lineBuffer.append(this.edge(EDGE_BOTTOM));
+  String divider(
+    final TTableType table)
+  {
+    return this.renderTableFrameMiddle(
+      new StringBuilder(framedWidth(table)),
+      table
+    ).toString();
+  }
+
+  /**
+   * @param table The table
+   *
+   * @return The bottom edge of the frame of the given table
+   */
+
+  String bottom(
+    final TTableType table)
+  {
+    return this.renderTableFrameBottom(
+      new StringBuilder(framedWidth(table)),
+      table
+    ).toString();
+  }
+
+  private void renderTableRow(
+    final StringBuilder lineBuffer,
+    final TTableType table,
+    final int rowIndex,
+    final String[] cellStyles,
+    final TTableLineSinkType sink)
+    throws IOException
+  {
+    final var row = table.rowOf(rowIndex);
+    final var rowHeight = row.height();
+
+    /*
+     * Styles are looked up once per cell, rather than once per line of
+     * each cell.
+     */
+
+    if (cellStyles != null) {
+      final var styleSource = this.styles.get();
+      for (int cellIndex = 0; cellIndex < cellStyles.length; ++cellIndex) {
+        cellStyles[cellIndex] = TANSI.sequenceOf(
+          styleSource.cellStyle(table, rowIndex, cellIndex)
+        );
       }
-      this.lineBuffer.append(this.edge(EDGE_BOTTOM));
     }
-    this.lineBuffer.append(this.edge(JUNCTION_UP_DOWN_LEFT));
-    return this.lineBuffer.toString();
+
+    for (int rowLine = 0; rowLine < rowHeight; ++rowLine) {
+      sink.line(
+        this.renderTableMainRowsOneLine(
+          lineBuffer,
+          table,
+          row,
+          rowLine,
+          cellStyles
+        )
+      );
+    }
   }
 
-  private String renderTableMainRowsOneLine(
+  private CharSequence renderTableMainRowsOneLine(
+    final StringBuilder lineBuffer,
     final TTableType table,
     final TTableRowType row,
-    final int rowLine)
+    final int rowLine,
+    final String[] cellStyles)
   {
-    this.lineBuffer.setLength(0);
+    lineBuffer.setLength(0);
     for (int cellIndex = 0; cellIndex < table.columnCount(); ++cellIndex) {
-      this.lineBuffer.append(this.edge(EDGE_LEFT));
-      this.lineBuffer.append(' ');
-
-      final var cellWidth =
-        table.columnOf(cellIndex)
-          .width();
+      lineBuffer.append(this.edge(EDGE_LEFT));
+      lineBuffer.append(' ');
 
+      final var column =
+        table.columnOf(cellIndex);
       final var cellContentLines =
         row.cellContentFormatted(cellIndex);
 
+      final String text;
       if (rowLine >= cellContentLines.size()) {
-        this.lineBuffer.append(" ".repeat(cellWidth));
+        text = "";
       } else {
-        final var text = cellContentLines.get(rowLine);
-        this.lineBuffer.append(text);
-        final var pad = cellWidth - text.length();
-        this.lineBuffer.append(" ".repeat(pad));
+        text = cellContentLines.get(rowLine);
       }
 
-      this.lineBuffer.append(' ');
+      if (cellStyles != null) {
+        appendStyled(lineBuffer, cellStyles[cellIndex], column, text);
+      } else {
+        TColumnAligner.appendAligned(lineBuffer, column, text);
+      }
+
+      lineBuffer.append(' ');
     }
-    this.lineBuffer.append(this.edge(EDGE_RIGHT));
-    return this.lineBuffer.toString();
+    lineBuffer.append(this.edge(EDGE_RIGHT));
+    return lineBuffer;
   }
 
-  private String renderTableFrameTop(
-    final HashSet<Integer> columnBoundaries,
-    final int framedWidth)
+  private static void appendStyled(
+    final StringBuilder lineBuffer,
+    final String sequence,
+    final TTableColumnType column,
+    final String text)
   {
-    this.lineBuffer.setLength(0);
-    for (int index = 0; index < framedWidth; ++index) {
-      if (index == 0) {
-        this.lineBuffer.append(this.edge(CORNER_TOP_LEFT));
-        continue;
-      }
-      if (columnBoundaries.contains(Integer.valueOf(index))) {
-        this.lineBuffer.append(this.edge(JUNCTION_LEFT_RIGHT_DOWN));
-        continue;
-      }
-      if (index + 1 == framedWidth) {
-        this.lineBuffer.append(this.edge(CORNER_TOP_RIGHT));
-        continue;
-      }
-      this.lineBuffer.append(this.edge(EDGE_BOTTOM));
+    if (sequence.isEmpty()) {
+      TColumnAligner.appendAligned(lineBuffer, column, text);
+      return;
     }
-    return this.lineBuffer.toString();
+
+    lineBuffer.append(sequence);
+    TColumnAligner.appendAligned(lineBuffer, column, text);
+    lineBuffer.append(TANSI.RESET);
+  }
+
+  private CharSequence renderTableFrameTop(
+    final StringBuilder lineBuffer,
+    final TTableType table)
+  {
+    return this.renderTableFrameHorizontal(
+      lineBuffer,
+      table,
+      CORNER_TOP_LEFT,
+      JUNCTION_LEFT_RIGHT_DOWN,
+      CORNER_TOP_RIGHT
+    );
+  }
+
+  private CharSequence renderTableFrameMiddle(
+    final StringBuilder lineBuffer,
+    final TTableType table)
+  {
+    return this.renderTableFrameHorizontal(
+      lineBuffer,
+      table,
+      JUNCTION_UP_DOWN_RIGHT,
+      JUNCTION_CROSS,
+      JUNCTION_UP_DOWN_LEFT
+    );
   }
 
-  private String renderTableFrameMiddle(
-    final HashSet<Integer> columnBoundaries,
-    final int framedWidth)
+  private CharSequence renderTableFrameBottom(
+    final StringBuilder lineBuffer,
+    final TTableType table)
+  {
+    return this.renderTableFrameHorizontal(
+      lineBuffer,
+      table,
+      CORNER_BOTTOM_LEFT,
+      JUNCTION_LEFT_RIGHT_UP,
+      CORNER_BOTTOM_RIGHT
+    );
+  }
+
+  private CharSequence renderTableFrameHorizontal(
+    final StringBuilder lineBuffer,
+    final TTableType table,
+    final FramePieces left,
+    final FramePieces junction,
+    final FramePieces right)
   {
-    this.lineBuffer.setLength(0);
-    for (int index = 0; index < framedWidth; ++index) {
+    final var edge = this.edge(EDGE_BOTTOM);
+
+    lineBuffer.setLength(0);
+    for (int index = 0; index < table.columnCount(); ++index) {
       if (index == 0) {
-        this.lineBuffer.append(this.edge(JUNCTION_UP_DOWN_RIGHT));
-        continue;
-      }
-      if (columnBoundaries.contains(Integer.valueOf(index))) {
-        this.lineBuffer.append(this.edge(JUNCTION_CROSS));
-        continue;
-      }
-      if (index + 1 == framedWidth) {
-        this.lineBuffer.append(this.edge(JUNCTION_UP_DOWN_LEFT));
-        continue;
+        lineBuffer.append(this.edge(left));
+      } else {
+        lineBuffer.append(this.edge(junction));
       }
-      this.lineBuffer.append(this.edge(EDGE_BOTTOM));
+
+      // The cell width, plus one character of padding on each side
+      final var cellWidth = table.columnOf(index).width();
+      TPadding.fill(lineBuffer, edge, cellWidth + 2);
     }
-    return this.lineBuffer.toString();
+    lineBuffer.append(this.edge(right));
+    return lineBuffer;
   }
 
-  private String renderTableFrameBottom(
-    final HashSet<Integer> columnBoundaries,
-    final int framedWidth)
+  private final class RenderBlocks extends RecursiveAction
   {
-    this.lineBuffer.setLength(0);
-    for (int index = 0; index < framedWidth; ++index) {
-      if (index == 0) {
-        this.lineBuffer.append(this.edge(CORNER_BOTTOM_LEFT));
-        continue;
-      }
-      if (columnBoundaries.contains(Integer.valueOf(index))) {
-        this.lineBuffer.append(this.edge(JUNCTION_LEFT_RIGHT_UP));
-        continue;
+    private final TTableType table;
+    private final String divider;
+    private final AtomicReferenceArray<List<String>> blocks;
+    private final int blockStart;
+    private final int blockEnd;
+
+    RenderBlocks(
+      final TTableType inTable,
+      final String inDivider,
+      final AtomicReferenceArray<List<String>> inBlocks,
+      final int inBlockStart,
+      final int inBlockEnd)
+    {
+      this.table = inTable;
+      this.divider = inDivider;
+      this.blocks = inBlocks;
+      this.blockStart = inBlockStart;
+      this.blockEnd = inBlockEnd;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if (this.blockEnd - this.blockStart > 1) {
+        final var middle = (this.blockStart + this.blockEnd) >>> 1;
+        invokeAll(
+          new RenderBlocks(
+            this.table, this.divider, this.blocks, this.blockStart, middle),
+          new RenderBlocks(
+            this.table, this.divider, this.blocks, middle, this.blockEnd)
+        );
+        return;
       }
-      if (index + 1 == framedWidth) {
-        this.lineBuffer.append(this.edge(CORNER_BOTTOM_RIGHT));
-        continue;
+
+      final var rowStart =
+        this.blockStart * PARALLEL_BLOCK_ROWS;
+      final var rowEnd =
+        Math.min(rowStart + PARALLEL_BLOCK_ROWS, this.table.rowCount());
+      final var output =
+        new ArrayList<String>(PARALLEL_BLOCK_ROWS * 2);
+
+      try {
+        TTableRendererFramed.this.renderTableMainRows(
+          new StringBuilder(framedWidth(this.table)),
+          this.table,
+          this.divider,
+          rowStart,
+          rowEnd,
+          text -> output.add(text.toString())
+        );
+      } catch (final IOException e) {
+        // Collecting lines into a list cannot raise I/O errors.
+        throw new UncheckedIOException(e);
       }
-      this.lineBuffer.append(this.edge(EDGE_BOTTOM));
+      this.blocks.set(this.blockStart, output);
     }
-    return this.lineBuffer.toString();
   }
 }
@@ -0,0 +1,354 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableDifferentialRendererType;
+import com.io7m.tabla.core.TTableRowType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * A differential renderer for framed tables. Rows present in both tables
+ * are compared using precomputed content hashes, and only the lines of rows
+ * that have changed are rewritten. If a row changes height, every line from
+ * that row onwards is rewritten. Unchanged rows of the next table are never
+ * wrapped; they take the height of the corresponding previous row, whose
+ * content was wrapped when it was last rendered.
+ */
+
+public final class TTableRendererFramedDifferential
+  implements TTableDifferentialRendererType
+{
+  private static final TTableRendererFramedDifferential UNICODE =
+    new TTableRendererFramedDifferential(TTableRendererFramed.unicodeFramed());
+  private static final TTableRendererFramedDifferential ASCII =
+    new TTableRendererFramedDifferential(TTableRendererFramed.asciiFramed());
+
+  /**
+   * The number of lines above the first row: the top of the frame, the
+   * header, and the divider below the header.
+   */
+
+  private static final int HEADER_LINES = 3;
+
+  private static final String ERASE_BELOW = "\u001b[J";
+  private static final String ERASE_LINE = "\u001b[K";
+
+  private final TTableRendererFramed base;
+
+  private TTableRendererFramedDifferential(
+    final TTableRendererFramed inBase)
+  {
+    this.base = Objects.requireNonNull(inBase, "base");
+  }
+
+  /**
+   * @return A differential unicode table renderer
+   */
+
+  public static TTableDifferentialRendererType unicode()
+  {
+    return UNICODE;
+  }
+
+  /**
+   * @return A differential ASCII table renderer
+   */
+
+  public static TTableDifferentialRendererType ascii()
+  {
+    return ASCII;
+  }
+
+  @Override
+  public void renderChanges(
+    final TTableType previous,
+    final TTableType next,
+    final Appendable output)
+    throws IOException
+  {
+    Objects.requireNonNull(previous, "previous");
+    Objects.requireNonNull(next, "next");
+    Objects.requireNonNull(output, "output");
+
+    final var previousHeights = heights(previous);
+    final var cursor = new Cursor(output, lineCount(previousHeights));
+    if (!sameLayout(previous, next)) {
+      cursor.moveTo(0);
+      this.base.renderTo(next, cursor::replaceLine);
+      output.append(ERASE_BELOW);
+      return;
+    }
+
+    final var columnCount = next.columnCount();
+    final var lineBuffer =
+      new StringBuilder(TTableRendererFramed.framedWidth(next));
+
+    final var previousRows = previous.rowCount();
+    final var nextRows = next.rowCount();
+    final var commonRows = Math.min(previousRows, nextRows);
+
+    var line = HEADER_LINES;
+    var rowIndex = 0;
+    for (; rowIndex < commonRows; ++rowIndex) {
+      final var height = previousHeights[rowIndex];
+      final var previousRow = previous.rowOf(rowIndex);
+      final var nextRow = next.rowOf(rowIndex);
+
+      /*
+       * The columns have the same widths, so a row with unchanged content
+       * also has an unchanged height.
+       */
+
+      if (!sameContent(previousRow, nextRow, columnCount)) {
+        if (nextRow.height() != height) {
+          break;
+        }
+        this.updateRow(lineBuffer, previous, next, rowIndex, line, cursor);
+      }
+      line += height + 1;
+    }
+
+    if (rowIndex == previousRows && rowIndex == nextRows) {
+      cursor.moveTo(line);
+      return;
+    }
+
+    this.rewriteFrom(lineBuffer, next, rowIndex, line, cursor);
+    output.append(ERASE_BELOW);
+  }
+
+  private void updateRow(
+    final StringBuilder lineBuffer,
+    final TTableType previous,
+    final TTableType next,
+    final int rowIndex,
+    final int line,
+    final Cursor cursor)
+    throws IOException
+  {
+    final var oldLines = new ArrayList<String>();
+    final var newLines = new ArrayList<String>();
+    this.base.renderRow(
+      lineBuffer, previous, rowIndex, t -> oldLines.add(t.toString()));
+    this.base.renderRow(
+      lineBuffer, next, rowIndex, t -> newLines.add(t.toString()));
+
+    for (int rowLine = 0; rowLine < newLines.size(); ++rowLine) {
+      final var text = newLines.get(rowLine);
+      if (!text.equals(oldLines.get(rowLine))) {
+        cursor.moveTo(line + rowLine);
+        cursor.write(text);
+      }
+    }
+  }
+
+  private void rewriteFrom(
+    final StringBuilder lineBuffer,
+    final TTableType next,
+    final int firstRow,
+    final int line,
+    final Cursor cursor)
+    throws IOException
+  {
+    /*
+     * The remaining rows cannot be updated in place. Rewrite everything
+     * from the line that follows the last unchanged row.
+     */
+
+    final var nextRows = next.rowCount();
+    final var divider = this.base.divider(next);
+    final var bottom = this.base.bottom(next);
+
+    cursor.moveTo(line - 1);
+    cursor.writeLine(firstRow < nextRows ? divider : bottom);
+    for (int rowIndex = firstRow; rowIndex < nextRows; ++rowIndex) {
+      this.base.renderRow(lineBuffer, next, rowIndex, cursor::writeLine);
+      cursor.writeLine(rowIndex + 1 < nextRows ? divider : bottom);
+    }
+  }
+
+  private static boolean sameLayout(
+    final TTableType previous,
+    final TTableType next)
+  {
+    final var columnCount = next.columnCount();
+    if (columnCount == 0 || previous.columnCount() != columnCount) {
+      return false;
+    }
+
+    /*
+     * A table without rows has no divider below its header, and so shares
+     * no layout with tables that have rows.
+     */
+
+    if (previous.rowCount() == 0 || next.rowCount() == 0) {
+      return false;
+    }
+
+    for (int index = 0; index < columnCount; ++index) {
+      final var previousColumn = previous.columnOf(index);
+      final var nextColumn = next.columnOf(index);
+      if (previousColumn.width() != nextColumn.width()) {
+        return false;
+      }
+      if (previousColumn.alignment() != nextColumn.alignment()) {
+        return false;
+      }
+
+      /*
+       * The padding of every cell in a decimal column depends on the widest
+       * fractional part, so unchanged cells render differently if it
+       * changes.
+       */
+
+      if (TColumnAligner.fractionWidthFor(previousColumn)
+          != TColumnAligner.fractionWidthFor(nextColumn)) {
+        return false;
+      }
+      if (!previousColumn.headerContentFormatted()
+        .equals(nextColumn.headerContentFormatted())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean sameContent(
+    final TTableRowType previous,
+    final TTableRowType next,
+    final int columnCount)
+  {
+    if (previous == next) {
+      return true;
+    }
+    if (previous instanceof final TTableRow p
+        && next instanceof final TTableRow n) {
+      return p.sameContent(n);
+    }
+
+    for (int index = 0; index < columnCount; ++index) {
+      if (!previous.cellContentRaw(index).equals(next.cellContentRaw(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return The heights of the rows of the given table, or {@code null} if
+   * the table has no columns and therefore occupies no lines
+   */
+
+  private static int[] heights(
+    final TTableType table)
+  {
+    if (table.columnCount() == 0) {
+      return null;
+    }
+
+    final var rowCount = table.rowCount();
+    final var heights = new int[rowCount];
+    for (int index = 0; index < rowCount; ++index) {
+      heights[index] = table.rowOf(index).height();
+    }
+    return heights;
+  }
+
+  private static int lineCount(
+    final int[] heights)
+  {
+    if (heights == null) {
+      return 0;
+    }
+    if (heights.length == 0) {
+      return HEADER_LINES;
+    }
+
+    var lines = HEADER_LINES;
+    for (final var height : heights) {
+      lines += height + 1;
+    }
+    return lines;
+  }
+
+  /**
+   * The terminal cursor, tracked as a line index relative to the top of
+   * the table.
+   */
+
+  private static final class Cursor
+  {
+    private final Appendable output;
+    private int line;
+
+    Cursor(
+      final Appendable inOutput,
+      final int inLine)
+    {
+      this.output = inOutput;
+      this.line = inLine;
+    }
+
+    void moveTo(
+      final int target)
+      throws IOException
+    {
+      final var delta = this.line - target;
+      if (delta > 0) {
+        this.output.append("\u001b[");
+        this.output.append(Integer.toString(delta));
+        this.output.append('A');
+      } else if (delta < 0) {
+        this.output.append("\u001b[");
+        this.output.append(Integer.toString(-delta));
+        this.output.append('B');
+      }
+      this.output.append('\r');
+      this.line = target;
+    }
+
+    void write(
+      final CharSequence text)
+      throws IOException
+    {
+      this.output.append(text);
+    }
+
+    void writeLine(
+      final CharSequence text)
+      throws IOException
+    {
+      this.output.append(text);
+      this.output.append('\n');
+      ++this.line;
+    }
+
+    void replaceLine(
+      final CharSequence text)
+      throws IOException
+    {
+      this.output.append(text);
+      this.output.append(ERASE_LINE);
+      this.output.append('\n');
+      ++this.line;
+    }
+  }
+}
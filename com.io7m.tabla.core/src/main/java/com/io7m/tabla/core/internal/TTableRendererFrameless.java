@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+
+/**
+ * A frameless table renderer. Columns are padded to their solved widths and
+ * separated by spaces, in the manner of {@code column -t}, with no frame and
+ * no dividers between rows. Trailing whitespace is removed from every line.
+ * The header may optionally be underlined.
+ */
+
+public final class TTableRendererFrameless
+  extends TTableRendererLineBased
+{
+  /**
+   * The number of spaces placed between columns.
+   */
+
+  private static final int COLUMN_GAP = 2;
+
+  private static final TTableRendererFrameless PLAIN =
+    new TTableRendererFrameless(false);
+  private static final TTableRendererFrameless UNDERLINED =
+    new TTableRendererFrameless(true);
+
+  private final boolean underline;
+
+  private TTableRendererFrameless(
+    final boolean inUnderline)
+  {
+    this.underline = inUnderline;
+  }
+
+  /**
+   * @return A frameless table renderer
+   */
+
+  public static TTableRendererType frameless()
+  {
+    return PLAIN;
+  }
+
+  /**
+   * @return A frameless table renderer that underlines the header
+   */
+
+  public static TTableRendererType framelessUnderlined()
+  {
+    return UNDERLINED;
+  }
+
+  @Override
+  void renderTo(
+    final TTableType table,
+    final TTableLineSinkType sink)
+    throws IOException
+  {
+    final var maxColumns = table.columnCount();
+    if (maxColumns == 0) {
+      return;
+    }
+
+    final var lineBuffer =
+      new StringBuilder(table.contentWidth() + (maxColumns * COLUMN_GAP));
+
+    for (int index = 0; index < maxColumns; ++index) {
+      if (index > 0) {
+        TPadding.pad(lineBuffer, COLUMN_GAP);
+      }
+      final var column = table.columnOf(index);
+      TColumnAligner.appendAlignedHeader(
+        lineBuffer,
+        column,
+        column.headerContentFormatted()
+      );
+    }
+    sink.line(trimEnd(lineBuffer));
+
+    if (this.underline) {
+      lineBuffer.setLength(0);
+      for (int index = 0; index < maxColumns; ++index) {
+        if (index > 0) {
+          TPadding.pad(lineBuffer, COLUMN_GAP);
+        }
+        TPadding.fill(lineBuffer, '-', table.columnOf(index).width());
+      }
+      sink.line(trimEnd(lineBuffer));
+    }
+
+    final var maxRows = table.rowCount();
+    for (int rowIndex = 0; rowIndex < maxRows; ++rowIndex) {
+      final var row = table.rowOf(rowIndex);
+      final var rowHeight = row.height();
+      for (int rowLine = 0; rowLine < rowHeight; ++rowLine) {
+        lineBuffer.setLength(0);
+        for (int cellIndex = 0; cellIndex < maxColumns; ++cellIndex) {
+          if (cellIndex > 0) {
+            TPadding.pad(lineBuffer, COLUMN_GAP);
+          }
+
+          final var lines = row.cellContentFormatted(cellIndex);
+          final String text;
+          if (rowLine < lines.size()) {
+            text = lines.get(rowLine);
+          } else {
+            text = "";
+          }
+          TColumnAligner.appendAligned(
+            lineBuffer,
+            table.columnOf(cellIndex),
+            text
+          );
+        }
+        sink.line(trimEnd(lineBuffer));
+      }
+    }
+  }
+
+  private static CharSequence trimEnd(
+    final StringBuilder lineBuffer)
+  {
+    var end = lineBuffer.length();
+    while (end > 0 && lineBuffer.charAt(end - 1) == ' ') {
+      --end;
+    }
+    lineBuffer.setLength(end);
+    return lineBuffer;
+  }
+}
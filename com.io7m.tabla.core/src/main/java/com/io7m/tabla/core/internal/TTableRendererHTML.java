@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+
+/**
+ * An HTML table renderer. Cells are written using their raw content. Text
+ * is escaped using a precomputed table of replacements, copying unescaped
+ * characters to the output in runs.
+ */
+
+public final class TTableRendererHTML
+  extends TTableRendererLineBased
+{
+  private static final TTableRendererHTML INSTANCE =
+    new TTableRendererHTML();
+
+  private static final String[] ESCAPES =
+    createEscapes();
+
+  private TTableRendererHTML()
+  {
+
+  }
+
+  /**
+   * @return An HTML table renderer
+   */
+
+  public static TTableRendererType html()
+  {
+    return INSTANCE;
+  }
+
+  private static String[] createEscapes()
+  {
+    final var escapes = new String['>' + 1];
+    escapes['&'] = "&amp;";
+    escapes['<'] = "&lt;";
+    escapes['>'] = "&gt;";
+    escapes['"'] = "&quot;";
+    escapes['\''] = "&#39;";
+    return escapes;
+  }
+
+  @Override
+  void renderTo(
+    final TTableType table,
+    final TTableLineSinkType sink)
+    throws IOException
+  {
+    final var maxColumns = table.columnCount();
+    if (maxColumns == 0) {
+      return;
+    }
+
+    final var lineBuffer = new StringBuilder(128);
+    sink.line("<table>");
+    sink.line("<thead>");
+
+    lineBuffer.append("<tr>");
+    for (int index = 0; index < maxColumns; ++index) {
+      lineBuffer.append("<th>");
+      writeEscaped(lineBuffer, table.columnOf(index).headerContentRaw());
+      lineBuffer.append("</th>");
+    }
+    lineBuffer.append("</tr>");
+    sink.line(lineBuffer);
+
+    sink.line("</thead>");
+    sink.line("<tbody>");
+
+    final var maxRows = table.rowCount();
+    for (int index = 0; index < maxRows; ++index) {
+      final var row = table.rowOf(index);
+      lineBuffer.setLength(0);
+      lineBuffer.append("<tr>");
+      for (int cellIndex = 0; cellIndex < maxColumns; ++cellIndex) {
+        lineBuffer.append("<td>");
+        writeEscaped(lineBuffer, row.cellContentRaw(cellIndex));
+        lineBuffer.append("</td>");
+      }
+      lineBuffer.append("</tr>");
+      sink.line(lineBuffer);
+    }
+
+    sink.line("</tbody>");
+    sink.line("</table>");
+  }
+
+  private static void writeEscaped(
+    final StringBuilder output,
+    final String text)
+  {
+    final var escapes = ESCAPES;
+    final var length = text.length();
+    var runStart = 0;
+    for (int index = 0; index < length; ++index) {
+      final var c = text.charAt(index);
+      if (c < escapes.length) {
+        final var escape = escapes[c];
+        if (escape != null) {
+          output.append(text, runStart, index);
+          output.append(escape);
+          runStart = index + 1;
+        }
+      }
+    }
+    output.append(text, runStart, length);
+  }
+}
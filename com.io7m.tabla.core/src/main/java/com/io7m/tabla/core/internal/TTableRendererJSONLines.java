@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+
+/**
+ * A JSON Lines table renderer. Each row is rendered as a single JSON object
+ * whose keys are the raw column headers and whose values are the raw cell
+ * contents. No header line is produced. Keys are escaped once per table,
+ * and cell contents are escaped using a precomputed table of replacements.
+ */
+
+public final class TTableRendererJSONLines
+  extends TTableRendererLineBased
+{
+  private static final TTableRendererJSONLines INSTANCE =
+    new TTableRendererJSONLines();
+
+  private static final String[] ESCAPES =
+    createEscapes();
+
+  private TTableRendererJSONLines()
+  {
+
+  }
+
+  /**
+   * @return A JSON Lines table renderer
+   */
+
+  public static TTableRendererType jsonLines()
+  {
+    return INSTANCE;
+  }
+
+  private static String[] createEscapes()
+  {
+    final var escapes = new String['\\' + 1];
+    for (int c = 0; c < 0x20; ++c) {
+      escapes[c] = "\\u%04x".formatted(Integer.valueOf(c));
+    }
+    escapes['\b'] = "\\b";
+    escapes['\f'] = "\\f";
+    escapes['\n'] = "\\n";
+    escapes['\r'] = "\\r";
+    escapes['\t'] = "\\t";
+    escapes['"'] = "\\\"";
+    escapes['\\'] = "\\\\";
+    return escapes;
+  }
+
+  @Override
+  void renderTo(
+    final TTableType table,
+    final TTableLineSinkType sink)
+    throws IOException
+  {
+    final var maxColumns = table.columnCount();
+    if (maxColumns == 0) {
+      return;
+    }
+
+    final var lineBuffer = new StringBuilder(128);
+    final var keys = new String[maxColumns];
+    for (int index = 0; index < maxColumns; ++index) {
+      lineBuffer.setLength(0);
+      lineBuffer.append(index == 0 ? '{' : ',');
+      writeString(lineBuffer, table.columnOf(index).headerContentRaw());
+      lineBuffer.append(':');
+      keys[index] = lineBuffer.toString();
+    }
+
+    final var maxRows = table.rowCount();
+    for (int index = 0; index < maxRows; ++index) {
+      final var row = table.rowOf(index);
+      lineBuffer.setLength(0);
+      for (int cellIndex = 0; cellIndex < maxColumns; ++cellIndex) {
+        lineBuffer.append(keys[cellIndex]);
+        writeString(lineBuffer, row.cellContentRaw(cellIndex));
+      }
+      lineBuffer.append('}');
+      sink.line(lineBuffer);
+    }
+  }
+
+  private static void writeString(
+    final StringBuilder output,
+    final String text)
+  {
+    final var escapes = ESCAPES;
+    final var length = text.length();
+    var runStart = 0;
+
+    output.append('"');
+    for (int index = 0; index < length; ++index) {
+      final var c = text.charAt(index);
+      if (c < escapes.length) {
+        final var escape = escapes[c];
+        if (escape != null) {
+          output.append(text, runStart, index);
+          output.append(escape);
+          runStart = index + 1;
+        }
+      }
+    }
+    output.append(text, runStart, length);
+    output.append('"');
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The base class for renderers that produce output one line at a time.
+ * Subclasses write each line to a sink, and the sink either collects the
+ * lines into a list or streams them directly to an output.
+ */
+
+abstract class TTableRendererLineBased
+  implements TTableRendererType
+{
+  TTableRendererLineBased()
+  {
+
+  }
+
+  /**
+   * Render the given table to the given sink.
+   *
+   * @param table The table
+   * @param sink  The sink
+   *
+   * @throws IOException On I/O errors
+   */
+
+  abstract void renderTo(
+    TTableType table,
+    TTableLineSinkType sink)
+    throws IOException;
+
+  /**
+   * @return The separator written after each line when rendering to an output
+   */
+
+  String lineSeparator()
+  {
+    return "\n";
+  }
+
+  @Override
+  public final List<String> renderLines(
+    final TTableType table)
+  {
+    Objects.requireNonNull(table, "table");
+
+    final var output = new ArrayList<String>();
+    try {
+      this.renderTo(table, text -> output.add(text.toString()));
+    } catch (final IOException e) {
+      // Collecting lines into a list cannot raise I/O errors.
+      throw new UncheckedIOException(e);
+    }
+    return List.copyOf(output);
+  }
+
+  @Override
+  public final void render(
+    final TTableType table,
+    final Appendable output)
+    throws IOException
+  {
+    Objects.requireNonNull(table, "table");
+    Objects.requireNonNull(output, "output");
+
+    final var separator = this.lineSeparator();
+    this.renderTo(table, text -> {
+      output.append(text);
+      output.append(separator);
+    });
+  }
+}
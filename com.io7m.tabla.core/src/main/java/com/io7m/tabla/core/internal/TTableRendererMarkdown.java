@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TColumnAlignment;
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+
+/**
+ * A GitHub-flavoured Markdown table renderer. Cells are written using their
+ * raw content, with pipe and backslash characters escaped in a single pass,
+ * and line breaks replaced with spaces. The alignment marker of each column
+ * is derived from the column's declared alignment.
+ */
+
+public final class TTableRendererMarkdown
+  extends TTableRendererLineBased
+{
+  private static final TTableRendererMarkdown INSTANCE =
+    new TTableRendererMarkdown();
+
+  private TTableRendererMarkdown()
+  {
+
+  }
+
+  /**
+   * @return A Markdown table renderer
+   */
+
+  public static TTableRendererType markdown()
+  {
+    return INSTANCE;
+  }
+
+  @Override
+  void renderTo(
+    final TTableType table,
+    final TTableLineSinkType sink)
+    throws IOException
+  {
+    final var maxColumns = table.columnCount();
+    if (maxColumns == 0) {
+      return;
+    }
+
+    final var lineBuffer = new StringBuilder(128);
+    lineBuffer.append('|');
+    for (int index = 0; index < maxColumns; ++index) {
+      lineBuffer.append(' ');
+      writeEscaped(lineBuffer, table.columnOf(index).headerContentRaw());
+      lineBuffer.append(" |");
+    }
+    sink.line(lineBuffer);
+
+    lineBuffer.setLength(0);
+    lineBuffer.append('|');
+    for (int index = 0; index < maxColumns; ++index) {
+      lineBuffer.append(' ');
+      lineBuffer.append(delimiterFor(table.columnOf(index).alignment()));
+      lineBuffer.append(" |");
+    }
+    sink.line(lineBuffer);
+
+    final var maxRows = table.rowCount();
+    for (int index = 0; index < maxRows; ++index) {
+      final var row = table.rowOf(index);
+      lineBuffer.setLength(0);
+      lineBuffer.append('|');
+      for (int cellIndex = 0; cellIndex < maxColumns; ++cellIndex) {
+        lineBuffer.append(' ');
+        writeEscaped(lineBuffer, row.cellContentRaw(cellIndex));
+        lineBuffer.append(" |");
+      }
+      sink.line(lineBuffer);
+    }
+  }
+
+  private static String delimiterFor(
+    final TColumnAlignment alignment)
+  {
+    return switch (alignment) {
+      case LEFT -> ":---";
+      case CENTER -> ":---:";
+      case RIGHT, DECIMAL -> "---:";
+    };
+  }
+
+  private static void writeEscaped(
+    final StringBuilder output,
+    final String text)
+  {
+    final var length = text.length();
+    var runStart = 0;
+    for (int index = 0; index < length; ++index) {
+      final var c = text.charAt(index);
+      switch (c) {
+        case '|', '\\' -> {
+          output.append(text, runStart, index);
+          output.append('\\');
+          output.append(c);
+          runStart = index + 1;
+        }
+        case '\r', '\n' -> {
+          output.append(text, runStart, index);
+          output.append(' ');
+          runStart = index + 1;
+        }
+        default -> {
+
+        }
+      }
+    }
+    output.append(text, runStart, length);
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * A renderer that caches the output of another renderer. Tables are weakly
+ * referenced by the cache, and so caching output never prevents a table
+ * from being collected. Output may additionally be softly referenced, so
+ * that it can be discarded under memory pressure and recomputed on demand.
+ *
+ * <p>Concurrent callers that miss the cache may each render the same table;
+ * the results are equal, and the last one stored is retained.</p>
+ */
+
+public final class TTableRendererMemoised
+  implements TTableRendererType
+{
+  private final TTableRendererType delegate;
+  private final boolean soft;
+  private final Map<TTableType, Object> cache;
+
+  private TTableRendererMemoised(
+    final TTableRendererType inDelegate,
+    final boolean inSoft)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+    this.soft =
+      inSoft;
+    this.cache =
+      Collections.synchronizedMap(new WeakHashMap<>());
+  }
+
+  /**
+   * @param delegate The renderer that produces output
+   * @param soft     {@code true} if output should be softly referenced
+   *
+   * @return A memoising renderer
+   */
+
+  public static TTableRendererType memoised(
+    final TTableRendererType delegate,
+    final boolean soft)
+  {
+    return new TTableRendererMemoised(delegate, soft);
+  }
+
+  @Override
+  public List<String> renderLines(
+    final TTableType table)
+  {
+    Objects.requireNonNull(table, "table");
+
+    final var entry = this.entryFor(table);
+    var lines = entry.lines;
+    if (lines == null) {
+      lines = this.delegate.renderLines(table);
+      entry.lines = lines;
+    }
+    return lines;
+  }
+
+  @Override
+  public void render(
+    final TTableType table,
+    final Appendable output)
+    throws IOException
+  {
+    Objects.requireNonNull(table, "table");
+    Objects.requireNonNull(output, "output");
+
+    /*
+     * The text is cached separately from the lines, because the line
+     * separator written by the delegate is not known here.
+     */
+
+    final var entry = this.entryFor(table);
+    var text = entry.text;
+    if (text == null) {
+      final var buffer = new StringBuilder();
+      this.delegate.render(table, buffer);
+      text = buffer.toString();
+      entry.text = text;
+    }
+    output.append(text);
+  }
+
+  private Entry entryFor(
+    final TTableType table)
+  {
+    synchronized (this.cache) {
+      final var existing = this.cache.get(table);
+      if (existing instanceof final Entry e) {
+        return e;
+      }
+      if (existing instanceof final SoftReference<?> ref
+          && ref.get() instanceof final Entry e) {
+        return e;
+      }
+
+      final var entry = new Entry();
+      if (this.soft) {
+        this.cache.put(table, new SoftReference<>(entry));
+      } else {
+        this.cache.put(table, entry);
+      }
+      return entry;
+    }
+  }
+
+  private static final class Entry
+  {
+    private volatile List<String> lines;
+    private volatile String text;
+
+    Entry()
+    {
+
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableType;
+
+import java.io.IOException;
+
+/**
+ * A TSV table renderer. A header line is followed by one line per row, with
+ * fields separated by tab characters. Tabs, line breaks, and backslashes
+ * within fields are written as the escape sequences {@code \t},
+ * {@code \n}, {@code \r}, and {@code \\} respectively.
+ */
+
+public final class TTableRendererTSV
+  extends TTableRendererLineBased
+{
+  private static final TTableRendererTSV INSTANCE =
+    new TTableRendererTSV();
+
+  private static final String[] ESCAPES =
+    createEscapes();
+
+  private TTableRendererTSV()
+  {
+
+  }
+
+  /**
+   * @return A TSV table renderer
+   */
+
+  public static TTableRendererType tsv()
+  {
+    return INSTANCE;
+  }
+
+  private static String[] createEscapes()
+  {
+    final var escapes = new String['\\' + 1];
+    escapes['\t'] = "\\t";
+    escapes['\n'] = "\\n";
+    escapes['\r'] = "\\r";
+    escapes['\\'] = "\\\\";
+    return escapes;
+  }
+
+  @Override
+  void renderTo(
+    final TTableType table,
+    final TTableLineSinkType sink)
+    throws IOException
+  {
+    final var maxColumns = table.columnCount();
+    if (maxColumns == 0) {
+      return;
+    }
+
+    final var lineBuffer = new StringBuilder(128);
+    for (int index = 0; index < maxColumns; ++index) {
+      if (index > 0) {
+        lineBuffer.append('\t');
+      }
+      writeField(lineBuffer, table.columnOf(index).headerContentRaw());
+    }
+    sink.line(lineBuffer);
+
+    final var maxRows = table.rowCount();
+    for (int index = 0; index < maxRows; ++index) {
+      final var row = table.rowOf(index);
+      lineBuffer.setLength(0);
+      for (int cellIndex = 0; cellIndex < maxColumns; ++cellIndex) {
+        if (cellIndex > 0) {
+          lineBuffer.append('\t');
+        }
+        writeField(lineBuffer, row.cellContentRaw(cellIndex));
+      }
+      sink.line(lineBuffer);
+    }
+  }
+
+  private static void writeField(
+    final StringBuilder output,
+    final String text)
+  {
+    final var escapes = ESCAPES;
+    final var length = text.length();
+    var runStart = 0;
+    for (int index = 0; index < length; ++index) {
+      final var c = text.charAt(index);
+      if (c < escapes.length) {
+        final var escape = escapes[c];
+        if (escape != null) {
+          output.append(text, runStart, index);
+          output.append(escape);
+          runStart = index + 1;
+        }
+      }
+    }
+    output.append(text, runStart, length);
+  }
+}
@@ -21,10 +21,67 @@ import com.io7m.tabla.core.TTableRowType;
 
 import java.util.List;
 
+/**
+ * A table row.
+ *
+ * @param cells       The cells
+ * @param contentHash A hash of the raw content of the cells
+ */
+
 record TTableRow(
-  List<TTableCell> cells)
+  List<TTableCell> cells,
+  int contentHash)
   implements TTableRowType
 {
+  /**
+   * Create a row, computing a hash of the raw content of the cells. The hash
+   * allows renderers to detect changed rows without comparing every cell.
+   *
+   * @param cells The cells
+   *
+   * @return A row
+   */
+
+  static TTableRow create(
+    final List<TTableCell> cells)
+  {
+    var hash = 1;
+    for (final var cell : cells) {
+      hash = (31 * hash) + cell.contentHash();
+    }
+    return new TTableRow(cells, hash);
+  }
+
+  /**
+   * Determine whether this row has the same content as the given row.
+   * Differing hashes prove that the rows differ. Equal hashes are confirmed
+   * cell by cell, so that a collision can never cause a change to be missed,
+   * but cells are compared without formatting numbers.
+   *
+   * @param other The other row
+   *
+   * @return {@code true} if the rows have the same raw content
+   */
+
+  boolean sameContent(
+    final TTableRow other)
+  {
+    if (this.contentHash != other.contentHash) {
+      return false;
+    }
+
+    final var size = this.cells.size();
+    if (size != other.cells.size()) {
+      return false;
+    }
+    for (int index = 0; index < size; ++index) {
+      if (!this.cells.get(index).sameContent(other.cells.get(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public String cellContentRaw(
     final int index)
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableColumnType;
+import com.io7m.tabla.core.TTableRowType;
+import com.io7m.tabla.core.TTableType;
+
+import java.util.Objects;
+
+/**
+ * A view of a contiguous range of rows of a table. Rows outside the range
+ * are never accessed.
+ */
+
+final class TTableRowWindow implements TTableType
+{
+  private final TTableType table;
+  private final int firstRow;
+  private final int rowCount;
+
+  TTableRowWindow(
+    final TTableType inTable,
+    final int inFirstRow,
+    final int inRowCount)
+  {
+    this.table =
+      Objects.requireNonNull(inTable, "table");
+    this.firstRow =
+      inFirstRow;
+    this.rowCount =
+      inRowCount;
+  }
+
+  @Override
+  public int rowCount()
+  {
+    return this.rowCount;
+  }
+
+  @Override
+  public TTableRowType rowOf(
+    final int row)
+  {
+    Objects.checkIndex(row, this.rowCount);
+    return this.table.rowOf(this.firstRow + row);
+  }
+
+  @Override
+  public int columnCount()
+  {
+    return this.table.columnCount();
+  }
+
+  @Override
+  public TTableColumnType columnOf(
+    final int column)
+  {
+    return this.table.columnOf(column);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.RandomAccess;
+
+/**
+ * The rows of a selection of rows and columns of a table. Rows are produced
+ * on demand. If the selection retains every column of the source table at
+ * its existing width, the source rows are returned directly. Otherwise, each
+ * row is assembled once from the source cells, rewrapped to the new column
+ * widths; the content of the cells is shared with the source table.
+ */
+
+final class TTableSelectedRows
+  extends AbstractList<TTableRow>
+  implements RandomAccess
+{
+  private final TTable source;
+  private final int[] rows;
+  private final int[] columns;
+  private final int[] widths;
+  private final TTableRow[] assembled;
+
+  TTableSelectedRows(
+    final TTable inSource,
+    final int[] inRows,
+    final int[] inColumns,
+    final int[] inWidths)
+  {
+    this.source = inSource;
+    this.rows = inRows;
+    this.columns = inColumns;
+    this.widths = inWidths;
+    this.assembled =
+      sharesSourceRows(inSource, inColumns, inWidths)
+        ? null
+        : new TTableRow[inRows.length];
+  }
+
+  private static boolean sharesSourceRows(
+    final TTable source,
+    final int[] columns,
+    final int[] widths)
+  {
+    if (columns.length != source.columnCount()) {
+      return false;
+    }
+    for (int index = 0; index < columns.length; ++index) {
+      if (columns[index] != index) {
+        return false;
+      }
+      if (widths[index] != source.columnOf(index).width()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public TTableRow get(
+    final int index)
+  {
+    final var sourceRow = this.source.row(this.rows[index]);
+    if (this.assembled == null) {
+      return sourceRow;
+    }
+
+    var row = this.assembled[index];
+    if (row == null) {
+      final var sourceCells = sourceRow.cells();
+      final var cells = new ArrayList<TTableCell>(this.columns.length);
+      for (int column = 0; column < this.columns.length; ++column) {
+        cells.add(
+          sourceCells.get(this.columns[column]).withWidth(this.widths[column])
+        );
+      }
+      row = TTableRow.create(cells);
+      this.assembled[index] = row;
+    }
+    return row;
+  }
+
+  @Override
+  public int size()
+  {
+    return this.rows.length;
+  }
+}
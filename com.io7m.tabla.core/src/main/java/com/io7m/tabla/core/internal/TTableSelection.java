@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TTableColumnType;
+import com.io7m.tabla.core.TTableRowType;
+import com.io7m.tabla.core.TTableType;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A selection of rows and columns of a table that was not produced by a
+ * builder. The columns retain their existing widths.
+ */
+
+final class TTableSelection implements TTableType
+{
+  private final TTableType table;
+  private final int[] rows;
+  private final int[] columns;
+
+  TTableSelection(
+    final TTableType inTable,
+    final int[] inRows,
+    final int[] inColumns)
+  {
+    this.table =
+      Objects.requireNonNull(inTable, "table");
+    this.rows =
+      Objects.requireNonNull(inRows, "rows");
+    this.columns =
+      Objects.requireNonNull(inColumns, "columns");
+  }
+
+  @Override
+  public int rowCount()
+  {
+    return this.rows.length;
+  }
+
+  @Override
+  public TTableRowType rowOf(
+    final int row)
+  {
+    return new Row(this.table.rowOf(this.rows[row]), this.columns);
+  }
+
+  @Override
+  public int columnCount()
+  {
+    return this.columns.length;
+  }
+
+  @Override
+  public TTableColumnType columnOf(
+    final int column)
+  {
+    return this.table.columnOf(this.columns[column]);
+  }
+
+  private record Row(
+    TTableRowType row,
+    int[] columns)
+    implements TTableRowType
+  {
+    @Override
+    public String cellContentRaw(
+      final int index)
+    {
+      return this.row.cellContentRaw(this.columns[index]);
+    }
+
+    @Override
+    public List<String> cellContentFormatted(
+      final int index)
+    {
+      return this.row.cellContentFormatted(this.columns[index]);
+    }
+
+    @Override
+    public int height()
+    {
+      var height = 0;
+      for (final var column : this.columns) {
+        height = Math.max(height, this.row.cellContentFormatted(column).size());
+      }
+      return height;
+    }
+  }
+}
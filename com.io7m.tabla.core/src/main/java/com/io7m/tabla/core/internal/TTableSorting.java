@@ -0,0 +1,518 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.tabla.core.TSortKey;
+import com.io7m.tabla.core.TTableType;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Functions to sort the rows of tables. Rows are never moved; instead, an
+ * array of row indices is sorted with a stable merge sort, comparing keys
+ * that are extracted from each row once before sorting. Arrays above a
+ * threshold size are sorted in parallel.
+ */
+
+final class TTableSorting
+{
+  /**
+   * The number of rows above which rows are sorted in parallel.
+   */
+
+  static final int PARALLEL_THRESHOLD = 8192;
+
+  private static final int INSERTION_THRESHOLD = 24;
+
+  private TTableSorting()
+  {
+
+  }
+
+  /**
+   * A comparison of two rows by index.
+   */
+
+  private interface IndexComparatorType
+  {
+    int compare(
+      int row0,
+      int row1);
+  }
+
+  /**
+   * Compute the permutation that sorts the rows of a table.
+   *
+   * @param table The table
+   * @param keys  The sort keys, in order of precedence
+   *
+   * @return The indices of the rows of the table in sorted order
+   */
+
+  static int[] permutation(
+    final TTableType table,
+    final List<TSortKey> keys)
+  {
+    final var rowCount = table.rowCount();
+    final var comparators = new IndexComparatorType[keys.size()];
+    for (int index = 0; index < comparators.length; ++index) {
+      comparators[index] = comparatorFor(table, keys.get(index));
+    }
+
+    final IndexComparatorType comparator = (row0, row1) -> {
+      for (final var c : comparators) {
+        final var r = c.compare(row0, row1);
+        if (r != 0) {
+          return r;
+        }
+      }
+      return 0;
+    };
+
+    final var rows = new int[rowCount];
+    for (int index = 0; index < rowCount; ++index) {
+      rows[index] = index;
+    }
+
+    final var scratch = rows.clone();
+    if (rowCount > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool()
+        .invoke(new SortTask(scratch, rows, 0, rowCount, comparator));
+    } else {
+      mergeSort(scratch, rows, 0, rowCount, comparator);
+    }
+    return rows;
+  }
+
+  private static IndexComparatorType comparatorFor(
+    final TTableType table,
+    final TSortKey key)
+  {
+    final var column = key.column();
+    final IndexComparatorType ascending = switch (key.comparison()) {
+      case LEXICAL -> {
+        final var values = textKeys(table, column);
+        yield (row0, row1) -> values[row0].compareTo(values[row1]);
+      }
+      case NATURAL -> {
+        final var values = textKeys(table, column);
+        yield (row0, row1) -> compareNatural(values[row0], values[row1]);
+      }
+      case NUMERIC -> {
+        final var values = numericKeys(table, column);
+        yield values::compare;
+      }
+    };
+
+    if (key.descending()) {
+      return (row0, row1) -> ascending.compare(row1, row0);
+    }
+    return ascending;
+  }
+
+  private static String[] textKeys(
+    final TTableType table,
+    final int column)
+  {
+    final var values = new String[table.rowCount()];
+    for (int row = 0; row < values.length; ++row) {
+      values[row] = table.rowOf(row).cellContentRaw(column);
+    }
+    return values;
+  }
+
+  private static NumericKeys numericKeys(
+    final TTableType table,
+    final int column)
+  {
+    final var keys = new NumericKeys(table.rowCount());
+    if (table instanceof final TTable source) {
+      for (int row = 0; row < keys.size(); ++row) {
+        final var cell = source.row(row).cells().get(column);
+        if (cell.isLong()) {
+          keys.setLong(row, cell.longValue());
+        } else if (cell.isNumeric()) {
+          keys.setDouble(row, cell.numericValue());
+        } else {
+          keys.setText(row, cell.contentRaw());
+        }
+      }
+    } else if (table instanceof final TTableCompact source) {
+      for (int row = 0; row < keys.size(); ++row) {
+        if (source.isLong(row, column)) {
+          keys.setLong(row, source.longValue(row, column));
+        } else if (source.isNumeric(row, column)) {
+          keys.setDouble(row, source.numericValue(row, column));
+        } else {
+          keys.setText(row, source.contentRaw(row, column));
+        }
+      }
+    } else {
+      for (int row = 0; row < keys.size(); ++row) {
+        keys.setText(row, table.rowOf(row).cellContentRaw(column));
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * Compare a {@code long} with a {@code double} exactly, without converting
+   * the {@code long} to a {@code double}. {@code NaN} is greater than every
+   * {@code long}, as for {@link Double#compare(double, double)}.
+   */
+
+  private static int compareMixed(
+    final long x,
+    final double y)
+  {
+    if (Double.isNaN(y) || y >= 0x1p63) {
+      return -1;
+    }
+    if (y < -0x1p63) {
+      return 1;
+    }
+
+    /*
+     * The truncated value is exact, and the fractional part is either
+     * computed exactly or is zero, for doubles beyond 2^53.
+     */
+
+    final var truncated = (long) y;
+    if (x != truncated) {
+      return Long.compare(x, truncated);
+    }
+    final var fraction = y - truncated;
+    if (fraction > 0.0) {
+      return -1;
+    }
+    return fraction < 0.0 ? 1 : 0;
+  }
+
+  private static boolean isIntegerText(
+    final String text)
+  {
+    final var length = text.length();
+    final var start =
+      length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+    if (start == length || length - start > 19) {
+      return false;
+    }
+    for (int index = start; index < length; ++index) {
+      final var c = text.charAt(index);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compare strings such that runs of decimal digits are compared by their
+   * numeric value. Leading zeros are ignored, and runs of any length are
+   * compared without being parsed.
+   */
+
+  static int compareNatural(
+    final String x,
+    final String y)
+  {
+    final var xLength = x.length();
+    final var yLength = y.length();
+    int xi = 0;
+    int yi = 0;
+
+    while (xi < xLength && yi < yLength) {
+      final var xc = x.charAt(xi);
+      final var yc = y.charAt(yi);
+
+      if (isDigit(xc) && isDigit(yc)) {
+        final var xStart = skipZeros(x, xi);
+        final var yStart = skipZeros(y, yi);
+        final var xEnd = skipDigits(x, xStart);
+        final var yEnd = skipDigits(y, yStart);
+        final var r = compareDigits(x, xStart, xEnd, y, yStart, yEnd);
+        if (r != 0) {
+          return r;
+        }
+        xi = xEnd;
+        yi = yEnd;
+        continue;
+      }
+
+      if (xc != yc) {
+        return Character.compare(xc, yc);
+      }
+      ++xi;
+      ++yi;
+    }
+    return Integer.compare(xLength - xi, yLength - yi);
+  }
+
+  private static int compareDigits(
+    final String x,
+    final int xStart,
+    final int xEnd,
+    final String y,
+    final int yStart,
+    final int yEnd)
+  {
+    final var xCount = xEnd - xStart;
+    final var yCount = yEnd - yStart;
+    if (xCount != yCount) {
+      return Integer.compare(xCount, yCount);
+    }
+    for (int index = 0; index < xCount; ++index) {
+      final var r =
+        Character.compare(x.charAt(xStart + index), y.charAt(yStart + index));
+      if (r != 0) {
+        return r;
+      }
+    }
+    return 0;
+  }
+
+  private static boolean isDigit(
+    final char c)
+  {
+    return c >= '0' && c <= '9';
+  }
+
+  private static int skipZeros(
+    final String text,
+    final int start)
+  {
+    var index = start;
+    while (index < text.length() && text.charAt(index) == '0') {
+      ++index;
+    }
+    return index;
+  }
+
+  private static int skipDigits(
+    final String text,
+    final int start)
+  {
+    var index = start;
+    while (index < text.length() && isDigit(text.charAt(index))) {
+      ++index;
+    }
+    return index;
+  }
+
+  /**
+   * Sort the range {@code [low, high)} of {@code target}, using
+   * {@code source} (which must hold the same elements) as scratch space.
+   */
+
+  private static void mergeSort(
+    final int[] source,
+    final int[] target,
+    final int low,
+    final int high,
+    final IndexComparatorType comparator)
+  {
+    if (high - low < INSERTION_THRESHOLD) {
+      insertionSort(target, low, high, comparator);
+      return;
+    }
+
+    final var middle = (low + high) >>> 1;
+    mergeSort(target, source, low, middle, comparator);
+    mergeSort(target, source, middle, high, comparator);
+    merge(source, target, low, middle, high, comparator);
+  }
+
+  private static void insertionSort(
+    final int[] target,
+    final int low,
+    final int high,
+    final IndexComparatorType comparator)
+  {
+    for (int i = low + 1; i < high; ++i) {
+      final var value = target[i];
+      var j = i - 1;
+      while (j >= low && comparator.compare(target[j], value) > 0) {
+        target[j + 1] = target[j];
+        --j;
+      }
+      target[j + 1] = value;
+    }
+  }
+
+  private static void merge(
+    final int[] source,
+    final int[] target,
+    final int low,
+    final int middle,
+    final int high,
+    final IndexComparatorType comparator)
+  {
+    if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+      System.arraycopy(source, low, target, low, high - low);
+      return;
+    }
+
+    int left = low;
+    int right = middle;
+    for (int index = low; index < high; ++index) {
+      if (right >= high
+          || (left < middle
+              && comparator.compare(source[left], source[right]) <= 0)) {
+        target[index] = source[left];
+        ++left;
+      } else {
+        target[index] = source[right];
+        ++right;
+      }
+    }
+  }
+
+  /**
+   * Numeric sort keys. Integral keys are held as {@code long} values and
+   * compared exactly; other keys are held as the bits of {@code double}
+   * values. Text that cannot be parsed is {@code NaN}, and sorts after
+   * every number.
+   */
+
+  private static final class NumericKeys
+  {
+    private final long[] values;
+    private final boolean[] integral;
+
+    NumericKeys(
+      final int size)
+    {
+      this.values = new long[size];
+      this.integral = new boolean[size];
+    }
+
+    int size()
+    {
+      return this.values.length;
+    }
+
+    void setLong(
+      final int row,
+      final long value)
+    {
+      this.values[row] = value;
+      this.integral[row] = true;
+    }
+
+    void setDouble(
+      final int row,
+      final double value)
+    {
+      this.values[row] = Double.doubleToRawLongBits(value);
+      this.integral[row] = false;
+    }
+
+    void setText(
+      final int row,
+      final String text)
+    {
+      if (isIntegerText(text)) {
+        try {
+          this.setLong(row, Long.parseLong(text));
+          return;
+        } catch (final NumberFormatException e) {
+          // Out of the range of long; parsed as a double below.
+        }
+      }
+      try {
+        this.setDouble(row, Double.parseDouble(text));
+      } catch (final NumberFormatException e) {
+        this.setDouble(row, Double.NaN);
+      }
+    }
+
+    int compare(
+      final int row0,
+      final int row1)
+    {
+      final var x = this.values[row0];
+      final var y = this.values[row1];
+      if (this.integral[row0]) {
+        if (this.integral[row1]) {
+          return Long.compare(x, y);
+        }
+        return compareMixed(x, Double.longBitsToDouble(y));
+      }
+      if (this.integral[row1]) {
+        return -compareMixed(y, Double.longBitsToDouble(x));
+      }
+      return Double.compare(
+        Double.longBitsToDouble(x),
+        Double.longBitsToDouble(y)
+      );
+    }
+  }
+
+  private static final class SortTask extends RecursiveAction
+  {
+    private final int[] source;
+    private final int[] target;
+    private final int low;
+    private final int high;
+    private final IndexComparatorType comparator;
+
+    SortTask(
+      final int[] inSource,
+      final int[] inTarget,
+      final int inLow,
+      final int inHigh,
+      final IndexComparatorType inComparator)
+    {
+      this.source = inSource;
+      this.target = inTarget;
+      this.low = inLow;
+      this.high = inHigh;
+      this.comparator = inComparator;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if (this.high - this.low <= PARALLEL_THRESHOLD) {
+        mergeSort(
+          this.source,
+          this.target,
+          this.low,
+          this.high,
+          this.comparator
+        );
+        return;
+      }
+
+      final var middle = (this.low + this.high) >>> 1;
+      invokeAll(
+        new SortTask(this.target, this.source, this.low, middle, this.comparator),
+        new SortTask(this.target, this.source, middle, this.high, this.comparator)
+      );
+      merge(
+        this.source,
+        this.target,
+        this.low,
+        middle,
+        this.high,
+        this.comparator
+      );
+    }
+  }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.core.internal;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.tabla.core.TColumnAlignment;
+import com.io7m.tabla.core.TException;
+import com.io7m.tabla.core.TSortKey;
+import com.io7m.tabla.core.TTableRowType;
+import com.io7m.tabla.core.TTableType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Functions to produce views of existing tables.
+ */
+
+public final class TTableViews
+{
+  private TTableViews()
+  {
+
+  }
+
+  /**
+   * Produce a view of a contiguous range of rows of a table.
+   *
+   * @param table    The table
+   * @param firstRow The index of the first row
+   * @param rowCount The number of rows
+   *
+   * @return A view of the given rows
+   */
+
+  public static TTableType rowWindow(
+    final TTableType table,
+    final int firstRow,
+    final int rowCount)
+  {
+    Objects.requireNonNull(table, "table");
+
+    final var tableRows = table.rowCount();
+    Preconditions.checkPreconditionV(
+      firstRow >= 0 && rowCount >= 0 && firstRow <= tableRows - rowCount,
+      "Row window [%d, %d + %d) must lie within the table rows [0, %d)",
+      Integer.valueOf(firstRow),
+      Integer.valueOf(firstRow),
+      Integer.valueOf(rowCount),
+      Integer.valueOf(tableRows)
+    );
+
+    if (firstRow == 0 && rowCount == tableRows) {
+      return table;
+    }
+    return new TTableRowWindow(table, firstRow, rowCount);
+  }
+
+  /**
+   * Produce a view of a contiguous range of columns of a table.
+   *
+   * @param table       The table
+   * @param firstColumn The index of the first column
+   * @param columnCount The number of columns
+   *
+   * @return A view of the given columns
+   */
+
+  public static TTableType columnWindow(
+    final TTableType table,
+    final int firstColumn,
+    final int columnCount)
+  {
+    Objects.requireNonNull(table, "table");
+
+    final var tableColumns = table.columnCount();
+    Preconditions.checkPreconditionV(
+      firstColumn >= 0
+      && columnCount >= 0
+      && firstColumn <= tableColumns - columnCount,
+      "Column window [%d, %d + %d) must lie within the table columns [0, %d)",
+      Integer.valueOf(firstColumn),
+      Integer.valueOf(firstColumn),
+      Integer.valueOf(columnCount),
+      Integer.valueOf(tableColumns)
+    );
+
+    if (firstColumn == 0 && columnCount == tableColumns) {
+      return table;
+    }
+    return new TTableColumnWindow(table, firstColumn, columnCount);
+  }
+
+  /**
+   * Produce a view of the given columns of a table.
+   *
+   * @param table   The table
+   * @param columns The indices of the columns, in order
+   *
+   * @return A view of the given columns
+   *
+   * @throws TException If the column widths cannot be solved
+   */
+
+  public static TTableType project(
+    final TTableType table,
+    final int[] columns)
+    throws TException
+  {
+    Objects.requireNonNull(table, "table");
+    checkIndices(columns, table.columnCount(), "Column");
+    return select(table, identity(table.rowCount()), columns.clone(), true);
+  }
+
+  /**
+   * Produce a view of the rows of a table that match a predicate.
+   *
+   * @param table     The table
+   * @param predicate The predicate
+   *
+   * @return A view of the matching rows
+   *
+   * @throws TException If the column widths cannot be solved
+   */
+
+  public static TTableType filter(
+    final TTableType table,
+    final Predicate<? super TTableRowType> predicate)
+    throws TException
+  {
+    Objects.requireNonNull(table, "table");
+    Objects.requireNonNull(predicate, "predicate");
+
+    final var rowCount = table.rowCount();
+    var selected = new int[Math.min(rowCount, 16)];
+    var selectedCount = 0;
+    for (int index = 0; index < rowCount; ++index) {
+      if (predicate.test(table.rowOf(index))) {
+        if (selectedCount == selected.length) {
+          selected = Arrays.copyOf(selected, selected.length * 2);
+        }
+        selected[selectedCount] = index;
+        ++selectedCount;
+      }
+    }
+
+    return select(
+      table,
+      Arrays.copyOf(selected, selectedCount),
+      identity(table.columnCount()),
+      true
+    );
+  }
+
+  /**
+   * Produce a view of the given rows of a table.
+   *
+   * @param table The table
+   * @param rows  The indices of the rows, in order
+   *
+   * @return A view of the given rows
+   *
+   * @throws TException If the column widths cannot be solved
+   */
+
+  public static TTableType reorder(
+    final TTableType table,
+    final int[] rows)
+    throws TException
+  {
+    Objects.requireNonNull(table, "table");
+    checkIndices(rows, table.rowCount(), "Row");
+    return select(table, rows.clone(), identity(table.columnCount()), true);
+  }
+
+  /**
+   * Produce a view of a table with its rows sorted by the given keys.
+   *
+   * @param table The table
+   * @param keys  The sort keys, in order of precedence
+   *
+   * @return A sorted view of the table
+   *
+   * @throws TException On errors
+   */
+
+  public static TTableType sort(
+    final TTableType table,
+    final List<TSortKey> keys)
+    throws TException
+  {
+    Objects.requireNonNull(table, "table");
+    Objects.requireNonNull(keys, "keys");
+
+    final var columnCount = table.columnCount();
+    for (final var key : keys) {
+      Preconditions.checkPreconditionV(
+        key.column() < columnCount,
+        "Column index %d must be in the range [0, %d)",
+        Integer.valueOf(key.column()),
+        Integer.valueOf(columnCount)
+      );
+    }
+
+    /*
+     * A permutation of every row leaves the content of each column
+     * unchanged, so the existing column widths are retained.
+     */
+
+    return select(
+      table,
+      TTableSorting.permutation(table, keys),
+      identity(columnCount),
+      false
+    );
+  }
+
+  /**
+   * Select rows and columns of a table. Tables produced by builders have
+   * their column widths solved again for the selected content, and share
+   * their cells with the selection. Other tables retain their widths.
+   */
+
+  private static TTableType select(
+    final TTableType table,
+    final int[] rows,
+    final int[] columns,
+    final boolean solve)
+    throws TException
+  {
+    if (!(table instanceof final TTable source)) {
+      return new TTableSelection(table, rows, columns);
+    }
+
+    final var constraints =
+      source.constraints()
+        .map(c -> c.project(columns));
+
+    final var columnResults = new ArrayList<TTableColumn>(columns.length);
+    final int[] widths;
+    if (solve && constraints.isPresent()) {
+      final var selected = constraints.get();
+      final var fractionWidths = new int[columns.length];
+      widths = selected.solve(
+        contentLengths(source, rows, columns, selected, fractionWidths)
+      );
+      for (int index = 0; index < columns.length; ++index) {
+        final var column = (TTableColumn) source.columnOf(columns[index]);
+        columnResults.add(
+          column.withLayout(widths[index], fractionWidths[index])
+        );
+      }
+    } else {
+      widths = new int[columns.length];
+      for (int index = 0; index < columns.length; ++index) {
+        final var column = (TTableColumn) source.columnOf(columns[index]);
+        widths[index] = column.width();
+        columnResults.add(column);
+      }
+    }
+
+    return new TTable(
+      new TTableSelectedRows(source, rows, columns, widths),
+      Collections.unmodifiableList(columnResults),
+      constraints
+    );
+  }
+
+  /**
+   * Determine the content lengths of the selected columns over the selected
+   * rows, in the same manner as the builder: decimal columns must fit their
+   * widest integer part and widest fractional part together, and the
+   * widest fractional part of each decimal column is written to
+   * {@code fractionWidths}.
+   */
+
+  private static int[] contentLengths(
+    final TTable source,
+    final int[] rows,
+    final int[] columns,
+    final TTableConstraints constraints,
+    final int[] fractionWidths)
+  {
+    final var histograms = new TLengthHistogram[columns.length];
+    final var decimal = new boolean[columns.length];
+    for (int index = 0; index < columns.length; ++index) {
+      final var declaration = constraints.columns().get(index);
+      histograms[index] = declaration.createHistogram();
+      decimal[index] = declaration.alignment() == TColumnAlignment.DECIMAL;
+    }
+
+    final var lengths = new int[columns.length];
+    final var integerWidths = new int[columns.length];
+    for (final var row : rows) {
+      final var cells = source.row(row).cells();
+      for (int index = 0; index < columns.length; ++index) {
+        final var cell = cells.get(columns[index]);
+        final var length = cell.contentLength();
+        lengths[index] = Math.max(lengths[index], length);
+        if (histograms[index] != null) {
+          histograms[index].add(length);
+        }
+        if (decimal[index]) {
+          final var fraction = cell.fractionWidth();
+          integerWidths[index] =
+            Math.max(integerWidths[index], length - fraction);
+          fractionWidths[index] =
+            Math.max(fractionWidths[index], fraction);
+        }
+      }
+    }
+
+    for (int index = 0; index < columns.length; ++index) {
+      lengths[index] =
+        Math.max(lengths[index], integerWidths[index] + fractionWidths[index]);
+      if (histograms[index] != null) {
+        lengths[index] = histograms[index].length();
+      }
+    }
+    return lengths;
+  }
+
+  private static int[] identity(
+    final int count)
+  {
+    final var indices = new int[count];
+    for (int index = 0; index < count; ++index) {
+      indices[index] = index;
+    }
+    return indices;
+  }
+
+  private static void checkIndices(
+    final int[] indices,
+    final int count,
+    final String kind)
+  {
+    Objects.requireNonNull(indices, "indices");
+    for (final var index : indices) {
+      Preconditions.checkPreconditionV(
+        index >= 0 && index < count,
+        "%s index %d must be in the range [0, %d)",
+        kind,
+        Integer.valueOf(index),
+        Integer.valueOf(count)
+      );
+    }
+  }
+}
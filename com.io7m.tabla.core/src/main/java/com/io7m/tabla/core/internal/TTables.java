@@ -17,32 +17,37 @@
 
 package com.io7m.tabla.core.internal;
 
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.tabla.core.TCellStorage;
+import com.io7m.tabla.core.TColumnAlignment;
 import com.io7m.tabla.core.TColumnWidthConstraint;
+import com.io7m.tabla.core.TConstraintHardness;
 import com.io7m.tabla.core.TException;
+import com.io7m.tabla.core.TNumberFormatType;
 import com.io7m.tabla.core.TTableBuilderType;
+import com.io7m.tabla.core.TTableLayout;
 import com.io7m.tabla.core.TTableRowBuilderType;
 import com.io7m.tabla.core.TTableType;
-import com.io7m.tabla.core.TTableWidthConstraintAny;
-import com.io7m.tabla.core.TTableWidthConstraintRange;
 import com.io7m.tabla.core.TTableWidthConstraintType;
-import org.chocosolver.solver.Model;
-import org.chocosolver.solver.variables.IntVar;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
 
-import static org.chocosolver.solver.variables.IntVar.MAX_INT_BOUND;
-
 /**
  * The main table functionality.
  */
 
 public final class TTables
 {
+  private static final int INITIAL_ROW_CAPACITY = 16;
+  private static final int INITIAL_COLUMN_CAPACITY = 8;
+
   private TTables()
   {
 
@@ -56,41 +61,239 @@ public final class TTables
 
   public static TTableBuilderType builder()
   {
-    return new TTableBuilder();
+    return builder(INITIAL_ROW_CAPACITY, INITIAL_COLUMN_CAPACITY);
+  }
+
+  /**
+   * Create a new mutable table builder with storage sized for the expected
+   * number of rows.
+   *
+   * @param expectedRows The expected number of rows
+   *
+   * @return The builder
+   */
+
+  public static TTableBuilderType builder(
+    final int expectedRows)
+  {
+    return builder(expectedRows, INITIAL_COLUMN_CAPACITY);
   }
 
+  /**
+   * Create a new mutable table builder with storage sized for the expected
+   * number of rows and columns. The builder grows as necessary if more rows
+   * or columns are added.
+   *
+   * @param expectedRows    The expected number of rows
+   * @param expectedColumns The expected number of columns
+   *
+   * @return The builder
+   */
+
+  public static TTableBuilderType builder(
+    final int expectedRows,
+    final int expectedColumns)
+  {
+    return builder(expectedRows, expectedColumns, TCellStorage.OBJECTS);
+  }
+
+  /**
+   * Create a new mutable table builder with storage sized for the expected
+   * number of rows and columns, storing cells in the given manner.
+   *
+   * @param expectedRows    The expected number of rows
+   * @param expectedColumns The expected number of columns
+   * @param storage         The cell storage mode
+   *
+   * @return The builder
+   */
+
+  public static TTableBuilderType builder(
+    final int expectedRows,
+    final int expectedColumns,
+    final TCellStorage storage)
+  {
+    Objects.requireNonNull(storage, "storage");
+    Preconditions.checkPreconditionV(
+      expectedRows >= 0,
+      "Expected rows %d must be non-negative",
+      Integer.valueOf(expectedRows)
+    );
+    Preconditions.checkPreconditionV(
+      expectedColumns >= 0,
+      "Expected columns %d must be non-negative",
+      Integer.valueOf(expectedColumns)
+    );
+    return new TTableBuilder(
+      Math.max(1, expectedRows),
+      Math.max(1, expectedColumns),
+      storage
+    );
+  }
+
+  /**
+   * A table builder. Cells are stored by column: each column has an array of
+   * cell contents indexed by row, and the maximum content length and
+   * widest integer and fractional parts of each column are held in
+   * primitive arrays indexed by column. Numeric cells are stored in a primitive array per
+   * column, alongside an array of cell kinds; both are allocated only for
+   * columns that contain numeric cells.
+   *
+   * Each call to {@link #build()} solves its constraints in a fresh model.
+   * The widths of the most recent solution are retained, and are reused
+   * without solving when the width constraint and the maximum content
+   * lengths of the columns are unchanged, as is typical for builders that
+   * are cleared and refilled with similar data.
+   *
+   * With {@link TCellStorage#COMPACT} storage, no strings are stored: the
+   * content of text cells is appended to a {@link TCellArena}, every column
+   * has kind and value arrays, and tables are built as
+   * {@link TTableCompact} instances.
+   */
+
   private static final class TTableBuilder
     implements TTableBuilderType
   {
+    private static final byte KIND_TEXT = 0;
+    private static final byte KIND_LONG = TTableCompact.KIND_LONG;
+    private static final byte KIND_DOUBLE = TTableCompact.KIND_DOUBLE;
+
     private TTableWidthConstraintType widthConstraint;
     private final ArrayList<TTableColumnDeclaration> columns;
-    private final ArrayList<TTableRowBuilder> rows;
-    private final Model model;
-
-    private TTableBuilder()
+    private String[][] cells;
+    private long[][] numbers;
+    private byte[][] kinds;
+    private int[] rowSizes;
+    private int[] maximumContentLengths;
+    private TLengthHistogram[] lengthHistograms;
+    private int[] maximumIntegerWidths;
+    private int[] maximumFractionWidths;
+    private int rowCount;
+    private int rowCapacity;
+    private int[] solvedWidths;
+    private int[] solvedContentLengths;
+    private TTableConstraints solved;
+    private TCellArena arena;
+
+    private TTableBuilder(
+      final int expectedRows,
+      final int expectedColumns,
+      final TCellStorage storage)
     {
-      this.model =
-        new Model();
+      this.arena =
+        storage == TCellStorage.COMPACT ? new TCellArena() : null;
       this.widthConstraint =
         TTableWidthConstraintType.any();
-      this.rows =
-        new ArrayList<>();
       this.columns =
-        new ArrayList<>();
+        new ArrayList<>(expectedColumns);
+      this.rowCapacity =
+        expectedRows;
+      this.rowCount =
+        0;
+      this.cells =
+        new String[expectedColumns][];
+      this.numbers =
+        new long[expectedColumns][];
+      this.kinds =
+        new byte[expectedColumns][];
+      this.rowSizes =
+        new int[this.rowCapacity];
+      this.maximumContentLengths =
+        new int[expectedColumns];
+      this.lengthHistograms =
+        new TLengthHistogram[expectedColumns];
+      this.maximumIntegerWidths =
+        new int[expectedColumns];
+      this.maximumFractionWidths =
+        new int[expectedColumns];
     }
 
     @Override
     public TTableBuilderType declareColumn(
       final String name,
-      final TColumnWidthConstraint constraint)
+      final TColumnWidthConstraint constraint,
+      final TColumnAlignment alignment,
+      final TNumberFormatType numberFormat)
     {
       Objects.requireNonNull(name, "name");
       Objects.requireNonNull(constraint, "constraint");
+      Objects.requireNonNull(alignment, "alignment");
+      Objects.requireNonNull(numberFormat, "numberFormat");
 
       final var index = this.columns.size();
-      this.columns.add(
-        new TTableColumnDeclaration(this.model, index, name, constraint)
-      );
+      final var declaration =
+        new TTableColumnDeclaration(
+          index,
+          name,
+          constraint,
+          alignment,
+          numberFormat
+        );
+      this.columns.add(declaration);
+
+      if (index == this.cells.length) {
+        this.growColumns(Math.max(1, index * 2));
+      }
+      if (this.arena == null) {
+        this.cells[index] = new String[this.rowCapacity];
+      } else {
+        this.kinds[index] = new byte[this.rowCapacity];
+        this.numbers[index] = new long[this.rowCapacity];
+      }
+      this.lengthHistograms[index] =
+        declaration.createHistogram();
+      this.solvedWidths = null;
+      return this;
+    }
+
+    private void growColumns(
+      final int newCapacity)
+    {
+      this.cells =
+        Arrays.copyOf(this.cells, newCapacity);
+      this.numbers =
+        Arrays.copyOf(this.numbers, newCapacity);
+      this.kinds =
+        Arrays.copyOf(this.kinds, newCapacity);
+      this.maximumContentLengths =
+        Arrays.copyOf(this.maximumContentLengths, newCapacity);
+      this.lengthHistograms =
+        Arrays.copyOf(this.lengthHistograms, newCapacity);
+      this.maximumIntegerWidths =
+        Arrays.copyOf(this.maximumIntegerWidths, newCapacity);
+      this.maximumFractionWidths =
+        Arrays.copyOf(this.maximumFractionWidths, newCapacity);
+    }
+
+    @Override
+    public TTableBuilderType clearRows()
+    {
+      final var count = this.rowCount;
+      for (int index = 0; index < this.columns.size(); ++index) {
+        if (this.cells[index] != null) {
+          Arrays.fill(this.cells[index], 0, count, null);
+        }
+        if (this.kinds[index] != null) {
+          Arrays.fill(this.kinds[index], 0, count, KIND_TEXT);
+        }
+        if (this.lengthHistograms[index] != null) {
+          this.lengthHistograms[index].clear();
+        }
+      }
+      Arrays.fill(this.rowSizes, 0, count, 0);
+      Arrays.fill(this.maximumContentLengths, 0);
+      Arrays.fill(this.maximumIntegerWidths, 0);
+      Arrays.fill(this.maximumFractionWidths, 0);
+      this.rowCount = 0;
+
+      /*
+       * Tables built from this builder may hold the arena's chunks, so the
+       * chunks cannot be overwritten.
+       */
+
+      if (this.arena != null) {
+        this.arena = new TCellArena();
+      }
       return this;
     }
 
@@ -98,82 +301,302 @@ public final class TTables
     public TTableType build()
       throws TException
     {
-      final IntVar tableWidthVar =
-        this.createTableWidthVariable();
+      final var contentLengths = this.contentLengths();
+      if (this.solvedWidths != null
+          && this.widthConstraint.equals(this.solved.widthConstraint())
+          && Arrays.equals(contentLengths, this.solvedContentLengths)) {
+        return this.createTable(this.solvedWidths, Optional.of(this.solved));
+      }
 
-      final var columnCount =
-        this.columns.size();
-      final IntVar[] columnVars =
-        new IntVar[columnCount];
+      final var constraints =
+        new TTableConstraints(this.columns, this.widthConstraint);
+      final var widths =
+        constraints.solve(contentLengths);
+      final var table =
+        this.createTable(widths, Optional.of(constraints));
+
+      this.solvedWidths = widths;
+      this.solvedContentLengths = contentLengths;
+      this.solved = constraints;
+      return table;
+    }
 
-      for (int index = 0; index < columnVars.length; ++index) {
-        columnVars[index] = this.columns.get(index).createModelVariable();
+    /**
+     * @return The content length that each column must fit: the maximum
+     * content length, or the length at the percentile of a column with a
+     * percentile constraint
+     */
+
+    private int[] contentLengths()
+    {
+      final var columnCount = this.columns.size();
+      final var lengths = Arrays.copyOf(this.maximumContentLengths, columnCount);
+      for (int index = 0; index < columnCount; ++index) {
+        final var histogram = this.lengthHistograms[index];
+        if (histogram != null) {
+          lengths[index] = histogram.length();
+        }
       }
+      return lengths;
+    }
+
+    private void notifyLength(
+      final int column,
+      final int length)
+    {
+      this.maximumContentLengths[column] =
+        Math.max(this.maximumContentLengths[column], length);
+      final var histogram = this.lengthHistograms[column];
+      if (histogram != null) {
+        histogram.add(length);
+      }
+    }
 
-      final var tableColumnSumVar =
-        this.model.sum("TableColumnWidthsSum", columnVars);
+    @Override
+    public TTableType buildWithLayout(
+      final TTableLayout layout,
+      final TConstraintHardness fit)
+      throws TException
+    {
+      Objects.requireNonNull(layout, "layout");
+      Objects.requireNonNull(fit, "fit");
 
-      final var tableWidthConstraint =
-        this.model.arithm(tableColumnSumVar, "=", tableWidthVar);
+      final var columnCount = this.columns.size();
+      if (layout.columnCount() != columnCount) {
+        throw errorLayoutColumnCount(columnCount, layout.columnCount());
+      }
 
-      tableWidthConstraint.setName("TableColumnWidthsSum = TableWidth");
-      switch (this.widthConstraint.hardness()) {
-        case SOFT_CONSTRAINT -> tableWidthConstraint.reify();
-        case HARD_CONSTRAINT -> tableWidthConstraint.post();
+      final var widths = new int[columnCount];
+      for (int index = 0; index < columnCount; ++index) {
+        widths[index] = layout.columnWidths().get(index).intValue();
+        if (fit == TConstraintHardness.HARD_CONSTRAINT
+            && this.maximumContentLengths[index] > widths[index]) {
+          throw this.errorLayoutContentTooWide(index, widths[index]);
+        }
       }
+      return this.createTable(widths, Optional.empty());
+    }
 
-      this.solveConstraints();
+    private static TException errorLayoutColumnCount(
+      final int columnCount,
+      final int layoutCount)
+    {
+      final var attributes = new TreeMap<String, String>();
+      attributes.put("Expected Count", Integer.toString(columnCount));
+      attributes.put("Layout Count", Integer.toString(layoutCount));
 
+      return new TException(
+        "The layout does not match the declared columns.",
+        "error-layout-column-count",
+        attributes,
+        Optional.empty()
+      );
+    }
+
+    private TException errorLayoutContentTooWide(
+      final int column,
+      final int width)
+    {
+      final var attributes = new TreeMap<String, String>();
+      attributes.put("Column Index", Integer.toString(column));
+      attributes.put("Column Name", this.columns.get(column).name());
+      attributes.put("Column Width", Integer.toString(width));
+      attributes.put(
+        "Content Length",
+        Integer.toString(this.maximumContentLengths[column])
+      );
+
+      return new TException(
+        "Cell content does not fit within the layout.",
+        "error-layout-content-too-wide",
+        attributes,
+        Optional.empty()
+      );
+    }
+
+    @Override
+    public TTableType buildUnformatted()
+      throws TException
+    {
+      return this.createTable(new int[this.columns.size()], Optional.empty());
+    }
+
+    private List<TTableColumn> createColumns(
+      final int[] widths)
+    {
+      final var columnCount =
+        widths.length;
       final var columnResults =
         new ArrayList<TTableColumn>(columnCount);
-      for (int columnIndex = 0; columnIndex < columnVars.length; ++columnIndex) {
+
+      for (int columnIndex = 0; columnIndex < columnCount; ++columnIndex) {
+        final var declaration = this.columns.get(columnIndex);
         columnResults.add(
           new TTableColumn(
-            this.columns.get(columnIndex).name(),
-            columnVars[columnIndex].getValue()
+            declaration.name(),
+            widths[columnIndex],
+            declaration.alignment(),
+            this.maximumFractionWidths[columnIndex]
           )
         );
       }
+      return Collections.unmodifiableList(columnResults);
+    }
+
+    private void checkRowSizes()
+      throws TException
+    {
+      final var columnCount = this.columns.size();
+      for (int rowIndex = 0; rowIndex < this.rowCount; ++rowIndex) {
+        final var rowSize = this.rowSizes[rowIndex];
+        if (rowSize != columnCount) {
+          throw errorTooFewCells(columnCount, rowIndex, rowSize);
+        }
+      }
+    }
+
+    private TTableType createCompactTable(
+      final int[] widths)
+      throws TException
+    {
+      this.checkRowSizes();
+
+      final var columnCount = widths.length;
+      final var values = new long[columnCount][];
+      final var columnKinds = new byte[columnCount][];
+      final var formats = new TNumberFormatType[columnCount];
+      for (int index = 0; index < columnCount; ++index) {
+        values[index] = Arrays.copyOf(this.numbers[index], this.rowCount);
+        columnKinds[index] = Arrays.copyOf(this.kinds[index], this.rowCount);
+        formats[index] = this.columns.get(index).numberFormat();
+      }
+
+      return new TTableCompact(
+        this.createColumns(widths),
+        this.rowCount,
+        values,
+        columnKinds,
+        formats,
+        this.arena.chunks()
+      );
+    }
+
+    private TTableType createTable(
+      final int[] widths,
+      final Optional<TTableConstraints> constraints)
+      throws TException
+    {
+      if (this.arena != null) {
+        return this.createCompactTable(widths);
+      }
+
+      final var columnCount =
+        widths.length;
+      final var columnResults =
+        this.createColumns(widths);
 
       final var rowResults =
-        new ArrayList<TTableRow>(this.rows.size());
+        new ArrayList<TTableRow>(this.rowCount);
 
-      for (int rowIndex = 0; rowIndex < this.rows.size(); ++rowIndex) {
-        final var row =
-          this.rows.get(rowIndex);
-        final var cells =
+      for (int rowIndex = 0; rowIndex < this.rowCount; ++rowIndex) {
+        final var rowSize =
+          this.rowSizes[rowIndex];
+        final var rowCells =
           new ArrayList<TTableCell>(columnCount);
 
-        if (row.cells.size() != columnCount) {
-          throw errorTooFewCells(columnCount, rowIndex, row);
+        if (rowSize != columnCount) {
+          throw errorTooFewCells(columnCount, rowIndex, rowSize);
         }
 
         for (int cellIndex = 0; cellIndex < columnCount; ++cellIndex) {
-          cells.add(
-            TTableCell.create(
-              columnVars[cellIndex].getValue(),
-              row.cells.get(cellIndex)
-            )
-          );
+          rowCells.add(this.createCell(widths[cellIndex], cellIndex, rowIndex));
         }
-        rowResults.add(new TTableRow(cells));
+        rowResults.add(TTableRow.create(rowCells));
       }
 
       return new TTable(
-        List.copyOf(rowResults),
-        List.copyOf(columnResults)
+        Collections.unmodifiableList(rowResults),
+        columnResults,
+        constraints
       );
     }
 
+    private TTableCell createCell(
+      final int width,
+      final int column,
+      final int row)
+    {
+      final var columnKinds = this.kinds[column];
+      final var kind = columnKinds == null ? KIND_TEXT : columnKinds[row];
+      return switch (kind) {
+        case KIND_LONG -> TTableCell.createLong(
+          width,
+          this.numbers[column][row],
+          this.columns.get(column).numberFormat()
+        );
+        case KIND_DOUBLE -> TTableCell.createDouble(
+          width,
+          Double.longBitsToDouble(this.numbers[column][row]),
+          this.columns.get(column).numberFormat()
+        );
+        default -> TTableCell.create(width, this.cells[column][row]);
+      };
+    }
+
+    /**
+     * Trim whitespace (as {@link String#trim()} defines it) from the given
+     * sequence by scanning for the bounds of the content, and then copy
+     * only the characters within those bounds. Buffers and builders produce
+     * their subsequences as views or as a single copy, so the content is
+     * not copied twice.
+     */
+
+    private static String trimmed(
+      final CharSequence content)
+    {
+      if (content instanceof final String text) {
+        return text.trim();
+      }
+
+      final var start = trimStart(content);
+      final var end = trimEnd(content, start);
+      if (start == end) {
+        return "";
+      }
+      return content.subSequence(start, end).toString();
+    }
+
+    private static int trimStart(
+      final CharSequence content)
+    {
+      final var length = content.length();
+      int start = 0;
+      while (start < length && content.charAt(start) <= ' ') {
+        ++start;
+      }
+      return start;
+    }
+
+    private static int trimEnd(
+      final CharSequence content,
+      final int start)
+    {
+      int end = content.length();
+      while (end > start && content.charAt(end - 1) <= ' ') {
+        --end;
+      }
+      return end;
+    }
+
     private static TException errorTooFewCells(
       final int columnCount,
       final int rowIndex,
-      final TTableRowBuilder row)
+      final int receivedCount)
     {
       final var attributes = new TreeMap<String, String>();
       attributes.put("Row Index", Integer.toString(rowIndex));
       attributes.put("Expected Count", Integer.toString(columnCount));
-      attributes.put("Received Count", Integer.toString(row.cells.size()));
+      attributes.put("Received Count", Integer.toString(receivedCount));
 
       return new TException(
         "Too few cells in row.",
@@ -183,152 +606,303 @@ public final class TTables
       );
     }
 
-    private void solveConstraints()
+    @Override
+    public TTableBuilderType setWidthConstraint(
+      final TTableWidthConstraintType constraint)
+    {
+      this.widthConstraint =
+        Objects.requireNonNull(constraint, "constraint");
+      return this;
+    }
+
+    @Override
+    public TTableRowBuilderType addRow()
+    {
+      return new TTableRowBuilder(this, this.newRow());
+    }
+
+    @Override
+    public TTableBuilderType addRow(
+      final String... rowCells)
       throws TException
     {
-      final var solver =
-        this.model.getSolver();
-      final var solved =
-        solver.solve();
+      Objects.requireNonNull(rowCells, "cells");
+      return this.addRow(Arrays.asList(rowCells));
+    }
+
+    @Override
+    public TTableBuilderType addRow(
+      final List<String> rowCells)
+      throws TException
+    {
+      Objects.requireNonNull(rowCells, "cells");
+
+      final var columnCount = this.columns.size();
+      final var size = rowCells.size();
+      if (size > columnCount) {
+        throw this.errorTooManyCells();
+      }
+      if (size < columnCount) {
+        throw errorTooFewCells(columnCount, this.rowCount, size);
+      }
+
+      /*
+       * Every cell is checked before the row is created, so that a null
+       * cell leaves the builder without a partially filled row. The cell
+       * count has been validated once for the whole row, so the cells can
+       * then be stored directly.
+       */
+
+      for (int index = 0; index < columnCount; ++index) {
+        Objects.requireNonNull(rowCells.get(index), "content");
+      }
 
-      if (!solved) {
-        throw this.errorSolveFailed();
+      final var rowIndex = this.newRow();
+      for (int index = 0; index < columnCount; ++index) {
+        this.storeText(index, rowIndex, rowCells.get(index));
       }
+      this.rowSizes[rowIndex] = columnCount;
+      return this;
     }
 
-    private TException errorSolveFailed()
+    private int newRow()
     {
-      final var attributes = new TreeMap<String, String>();
-      for (final var v : this.model.getVars()) {
-        if (v.getName().startsWith("cste")) {
-          continue;
-        }
+      final var rowIndex = this.rowCount;
+      if (rowIndex == this.rowCapacity) {
+        this.growRows(this.rowCapacity * 2);
+      }
+      this.rowCount = rowIndex + 1;
+      return rowIndex;
+    }
 
-        if (v instanceof final IntVar iv) {
-          final String chosen;
-          if (iv.isInstantiated()) {
-            chosen = Integer.toString(iv.getValue());
-          } else {
-            chosen = "<indeterminate>";
-          }
-
-          final var value =
-            String.format(
-              "Allowed Range [%d, %d], Chosen Value (%s)",
-              Integer.valueOf(iv.getLB()),
-              Integer.valueOf(iv.getUB()),
-              chosen
-            );
-          attributes.put("Variable[%s]".formatted(v.getName()), value);
+    private void growRows(
+      final int newCapacity)
+    {
+      for (int index = 0; index < this.columns.size(); ++index) {
+        if (this.cells[index] != null) {
+          this.cells[index] = Arrays.copyOf(this.cells[index], newCapacity);
+        }
+        if (this.kinds[index] != null) {
+          this.kinds[index] = Arrays.copyOf(this.kinds[index], newCapacity);
+          this.numbers[index] = Arrays.copyOf(this.numbers[index], newCapacity);
         }
       }
+      this.rowSizes = Arrays.copyOf(this.rowSizes, newCapacity);
+      this.rowCapacity = newCapacity;
+    }
 
-      for (final var c : this.model.getCstrs()) {
-        attributes.put(
-          "Constraint[%s]".formatted(c.getName()),
-          c.isSatisfied().toString()
-        );
+    private int nextColumn(
+      final int rowIndex)
+      throws TException
+    {
+      final var column = this.rowSizes[rowIndex];
+      if (column >= this.columns.size()) {
+        throw this.errorTooManyCells();
       }
+      return column;
+    }
 
-      return new TException(
-        "Unable to solve table constraints.",
-        "error-constraints",
-        attributes,
-        Optional.empty()
-      );
+    private void addText(
+      final int rowIndex,
+      final CharSequence content)
+      throws TException
+    {
+      final var column = this.nextColumn(rowIndex);
+      this.storeText(column, rowIndex, content);
+      this.rowSizes[rowIndex] = column + 1;
     }
 
-    @Override
-    public TTableBuilderType setWidthConstraint(
-      final TTableWidthConstraintType constraint)
+    /**
+     * Store a text cell, trimming whitespace from the content. With compact
+     * storage, the trimmed range is encoded directly into the arena, and no
+     * string is created.
+     */
+
+    private void storeText(
+      final int column,
+      final int rowIndex,
+      final CharSequence content)
+      throws TException
     {
-      this.widthConstraint =
-        Objects.requireNonNull(constraint, "constraint");
-      return this;
+      if (this.arena == null) {
+        final var text = trimmed(content);
+        this.cells[column][rowIndex] = text;
+        if (this.kinds[column] != null) {
+          this.kinds[column][rowIndex] = KIND_TEXT;
+        }
+        this.notifyLength(column, text.length());
+        if (this.isDecimal(column)) {
+          this.notifyDecimal(
+            column,
+            text.length(),
+            TColumnAligner.fractionWidthOf(text)
+          );
+        }
+        return;
+      }
+
+      final var start = trimStart(content);
+      final var end = trimEnd(content, start);
+      final var latin1 = TCellArena.isLatin1(content, start, end);
+      this.numbers[column][rowIndex] =
+        this.arena.append(content, start, end, latin1);
+      this.kinds[column][rowIndex] =
+        latin1 ? TTableCompact.KIND_LATIN1 : TTableCompact.KIND_UTF16;
+      this.notifyLength(column, end - start);
+      if (this.isDecimal(column)) {
+        this.notifyDecimal(
+          column,
+          end - start,
+          TColumnAligner.fractionWidthOf(content, start, end)
+        );
+      }
     }
 
-    @Override
-    public TTableRowBuilderType addRow()
+    private void addLong(
+      final int rowIndex,
+      final long value)
+      throws TException
     {
-      final var rowBuilder = new TTableRowBuilder(this);
-      this.rows.add(rowBuilder);
-      return rowBuilder;
+      final var column = this.nextColumn(rowIndex);
+      final var format = this.columns.get(column).numberFormat();
+      final var length = format.lengthOf(value);
+      this.storeNumber(column, rowIndex, value, KIND_LONG);
+      this.notifyLength(column, length);
+      if (this.isDecimal(column)) {
+        this.notifyDecimal(column, length, 0);
+      }
+      this.rowSizes[rowIndex] = column + 1;
     }
 
-    private IntVar createTableWidthVariable()
+    private void addDouble(
+      final int rowIndex,
+      final double value)
+      throws TException
     {
-      if (this.widthConstraint instanceof final TTableWidthConstraintAny any) {
-        return this.model.intVar(
-          "TableWidth",
-          0,
-          MAX_INT_BOUND,
-          true
-        );
+      final var column = this.nextColumn(rowIndex);
+      final var format = this.columns.get(column).numberFormat();
+      this.storeNumber(
+        column,
+        rowIndex,
+        Double.doubleToRawLongBits(value),
+        KIND_DOUBLE
+      );
+      final var length = format.lengthOf(value);
+      this.notifyLength(column, length);
+
+      if (this.isDecimal(column)) {
+        this.notifyDecimal(column, length, format.fractionWidthOf(value));
       }
+      this.rowSizes[rowIndex] = column + 1;
+    }
 
-      if (this.widthConstraint instanceof final TTableWidthConstraintRange ranged) {
-        return this.model.intVar(
-          "TableWidth",
-          ranged.minimumSize(),
-          ranged.maximumSize()
-        );
+    private void storeNumber(
+      final int column,
+      final int rowIndex,
+      final long bits,
+      final byte kind)
+    {
+      if (this.kinds[column] == null) {
+        this.kinds[column] = new byte[this.rowCapacity];
+        this.numbers[column] = new long[this.rowCapacity];
       }
+      this.kinds[column][rowIndex] = kind;
+      this.numbers[column][rowIndex] = bits;
+      if (this.cells[column] != null) {
+        this.cells[column][rowIndex] = null;
+      }
+    }
 
-      throw new IllegalStateException();
+    private boolean isDecimal(
+      final int column)
+    {
+      return this.columns.get(column).alignment() == TColumnAlignment.DECIMAL;
     }
 
-    public void notifyColumnContentLength(
-      final int index,
-      final int length)
+    /**
+     * Record the integer and fractional parts of a cell in a decimal column.
+     * Aligning the decimal points requires room for the widest integer part
+     * and the widest fractional part at once, even when no single cell has
+     * both, and so the maximum content length is raised to their sum. The
+     * fractional part includes the decimal point. Callers check that the
+     * column is decimal before computing the fractional part, so that cells
+     * of other columns are neither scanned nor formatted.
+     */
+
+    private void notifyDecimal(
+      final int column,
+      final int length,
+      final int fractionWidth)
     {
-      this.columns.get(index).notifyContentLength(length);
+      this.maximumIntegerWidths[column] =
+        Math.max(this.maximumIntegerWidths[column], length - fractionWidth);
+      this.maximumFractionWidths[column] =
+        Math.max(this.maximumFractionWidths[column], fractionWidth);
+      this.maximumContentLengths[column] =
+        Math.max(
+          this.maximumContentLengths[column],
+          this.maximumIntegerWidths[column]
+            + this.maximumFractionWidths[column]
+        );
+    }
+
+    private TException errorTooManyCells()
+    {
+      return new TException(
+        "Too many cells for this row.",
+        "error-too-many-cells",
+        Map.ofEntries(
+          Map.entry(
+            "Maximum Cells", Integer.toString(this.columns.size())
+          )
+        ),
+        Optional.empty()
+      );
     }
+
   }
 
   private static final class TTableRowBuilder implements TTableRowBuilderType
   {
     private final TTableBuilder owner;
-    private final ArrayList<String> cells;
+    private final int rowIndex;
 
-    TTableRowBuilder(final TTableBuilder inOwner)
+    TTableRowBuilder(
+      final TTableBuilder inOwner,
+      final int inRowIndex)
     {
       this.owner =
         Objects.requireNonNull(inOwner, "owner");
-      this.cells =
-        new ArrayList<>();
+      this.rowIndex =
+        inRowIndex;
     }
 
     @Override
     public TTableRowBuilderType addCell(
-      final String content)
+      final CharSequence content)
       throws TException
     {
       Objects.requireNonNull(content, "content");
-      this.checkCellCount();
-
-      final var trimmedContent = content.trim();
-      final var index = this.cells.size();
+      this.owner.addText(this.rowIndex, content);
+      return this;
+    }
 
-      this.owner.notifyColumnContentLength(index, trimmedContent.length());
-      this.cells.add(trimmedContent);
+    @Override
+    public TTableRowBuilderType addCell(
+      final long value)
+      throws TException
+    {
+      this.owner.addLong(this.rowIndex, value);
       return this;
     }
 
-    private void checkCellCount()
+    @Override
+    public TTableRowBuilderType addCell(
+      final double value)
       throws TException
     {
-      if (this.cells.size() + 1 > this.owner.columns.size()) {
-        throw new TException(
-          "Too many cells for this row.",
-          "error-too-many-cells",
-          Map.ofEntries(
-            Map.entry(
-              "Maximum Cells", Integer.toString(this.owner.columns.size())
-            )
-          ),
-          Optional.empty()
-        );
-      }
+      this.owner.addDouble(this.rowIndex, value);
+      return this;
     }
   }
 }
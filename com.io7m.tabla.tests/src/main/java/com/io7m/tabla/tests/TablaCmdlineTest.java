@@ -34,7 +34,12 @@ public final class TablaCmdlineTest
   private static final List<String> RENDERERS = List.of(
     "FRAMED_UNICODE",
     "FRAMED_ASCII",
-    "CSV");
+    "CSV",
+    "MARKDOWN",
+    "HTML",
+    "TSV",
+    "JSON_LINES",
+    "FRAMELESS");
 
   @Test
   public void testHelp()
@@ -0,0 +1,1135 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.tabla.tests;
+
+import com.io7m.jaffirm.core.PreconditionViolationException;
+import com.io7m.tabla.core.TCSVConfiguration;
+import com.io7m.tabla.core.TCSVQuoting;
+import com.io7m.tabla.core.TCellStyle;
+import com.io7m.tabla.core.TTableRendererType;
+import com.io7m.tabla.core.TTableStyleType;
+import com.io7m.tabla.core.TTableType;
+import com.io7m.tabla.core.Tabla;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.tabla.core.TANSIColor.BLUE;
+import static com.io7m.tabla.core.TANSIColor.RED;
+import static com.io7m.tabla.core.TColumnAlignment.CENTER;
+import static com.io7m.tabla.core.TColumnAlignment.DECIMAL;
+import static com.io7m.tabla.core.TColumnAlignment.LEFT;
+import static com.io7m.tabla.core.TColumnAlignment.RIGHT;
+import static com.io7m.tabla.core.TColumnWidthConstraint.atLeastContent;
+import static com.io7m.tabla.core.TColumnWidthConstraint.atLeastContentOrHeader;
+import static com.io7m.tabla.core.TColumnWidthConstraint.exactWidth;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TablaRenderersTest
+{
+  private static final List<TTableRendererType> RENDERERS =
+    List.of(
+      Tabla.csvRenderer(),
+      Tabla.framedUnicodeRenderer(),
+      Tabla.framedASCIIRenderer(),
+      Tabla.markdownRenderer(),
+      Tabla.htmlRenderer(),
+      Tabla.tsvRenderer(),
+      Tabla.jsonLinesRenderer(),
+      Tabla.framelessRenderer(),
+      Tabla.framelessRendererUnderlined()
+    );
+
+  /**
+   * The framed renderers produce the expected output.
+   */
+
+  @Test
+  public void testFramedUnicode()
+    throws Exception
+  {
+    final var lines =
+      Tabla.framedUnicodeRenderer()
+        .renderLines(smallTable());
+
+    assertEquals(
+      List.of(
+        "┌──────┬──────────────┐",
+        "│ Name │ Description  │",
+        "├──────┼──────────────┤",
+        "│ Bat- │ A 9v         │",
+        "│ ter- │ battery.     │",
+        "│ y    │              │",
+        "├──────┼──────────────┤",
+        "│ HDMI │ A 3m HDMI    │",
+        "│ 3m   │ cable.       │",
+        "└──────┴──────────────┘"
+      ),
+      lines
+    );
+  }
+
+  /**
+   * The framed renderers produce the expected output.
+   */
+
+  @Test
+  public void testFramedASCII()
+    throws Exception
+  {
+    final var lines =
+      Tabla.framedASCIIRenderer()
+        .renderLines(smallTable());
+
+    assertEquals(
+      List.of(
+        "+------+--------------+",
+        "| Name | Description  |",
+        "+------+--------------+",
+        "| Bat- | A 9v         |",
+        "| ter- | battery.     |",
+        "| y    |              |",
+        "+------+--------------+",
+        "| HDMI | A 3m HDMI    |",
+        "| 3m   | cable.       |",
+        "+------+--------------+"
+      ),
+      lines
+    );
+  }
+
+  /**
+   * Renderers are shareable.
+   */
+
+  @Test
+  public void testRenderersShared()
+  {
+    assertSame(Tabla.csvRenderer(), Tabla.csvRenderer());
+    assertSame(Tabla.framedUnicodeRenderer(), Tabla.framedUnicodeRenderer());
+    assertSame(Tabla.framedASCIIRenderer(), Tabla.framedASCIIRenderer());
+  }
+
+  /**
+   * A single renderer instance can be used from many threads at once, and
+   * always produces the same output as a serial render.
+   */
+
+  @Test
+  public void testRenderersConcurrent()
+    throws Exception
+  {
+    final var tables = new ArrayList<TTableType>();
+    for (int index = 0; index < 8; ++index) {
+      tables.add(largeTable(index, 100 + (index * 10)));
+    }
+
+    final var expected = new ArrayList<List<List<String>>>();
+    for (final var renderer : RENDERERS) {
+      final var perTable = new ArrayList<List<String>>();
+      for (final var table : tables) {
+        perTable.add(renderer.renderLines(table));
+      }
+      expected.add(perTable);
+    }
+
+    final var threadCount = 16;
+    final var executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      final var start = new CountDownLatch(1);
+      final var futures = new ArrayList<Future<?>>();
+
+      for (int thread = 0; thread < threadCount; ++thread) {
+        final var threadIndex = thread;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int iteration = 0; iteration < 50; ++iteration) {
+            final var rIndex = (threadIndex + iteration) % RENDERERS.size();
+            final var tIndex = (threadIndex + iteration) % tables.size();
+            final var lines =
+              RENDERERS.get(rIndex).renderLines(tables.get(tIndex));
+            assertEquals(expected.get(rIndex).get(tIndex), lines);
+          }
+          return null;
+        }));
+      }
+
+      start.countDown();
+      for (final var future : futures) {
+        future.get(60L, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(60L, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Parallel renderers produce exactly the same output as serial renderers.
+   */
+
+  @Test
+  public void testRenderersParallel()
+    throws Exception
+  {
+    final var table = largeTable(3, 5000);
+    final var pool = new ForkJoinPool(4);
+    try {
+      assertEquals(
+        Tabla.framedUnicodeRenderer().renderLines(table),
+        Tabla.framedUnicodeRendererParallel(pool).renderLines(table)
+      );
+      assertEquals(
+        Tabla.framedASCIIRenderer().renderLines(table),
+        Tabla.framedASCIIRendererParallel(pool).renderLines(table)
+      );
+      assertEquals(
+        Tabla.framedUnicodeRenderer().renderLines(smallTable()),
+        Tabla.framedUnicodeRendererParallel(pool).renderLines(smallTable())
+      );
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Rendering a window of rows produces a complete table containing exactly
+   * those rows.
+   */
+
+  @Test
+  public void testRenderWindow()
+    throws Exception
+  {
+    final var table = largeTable(2, 100);
+
+    for (final var renderer : RENDERERS) {
+      final var all = renderer.renderLines(table);
+      assertEquals(all, renderer.renderLines(table, 0, 100));
+
+      for (final var window : List.of(
+        List.of(0, 10), List.of(10, 10), List.of(95, 5), List.of(50, 1))) {
+        final var first = window.get(0).intValue();
+        final var count = window.get(1).intValue();
+        final var expected =
+          renderer.renderLines(largeTableRows(2, first, count));
+        assertEquals(expected, renderer.renderLines(table, first, count));
+      }
+
+      assertEquals(
+        renderer.renderLines(largeTableRows(2, 0, 0)),
+        renderer.renderLines(table, 100, 0)
+      );
+    }
+  }
+
+  /**
+   * Row windows must lie within the table.
+   */
+
+  @Test
+  public void testRenderWindowOutOfRange()
+    throws Exception
+  {
+    final var table = largeTable(2, 100);
+    final var renderer = Tabla.framedUnicodeRenderer();
+
+    assertThrows(PreconditionViolationException.class, () -> {
+      renderer.renderLines(table, -1, 10);
+    });
+    assertThrows(PreconditionViolationException.class, () -> {
+      renderer.renderLines(table, 0, -1);
+    });
+    assertThrows(PreconditionViolationException.class, () -> {
+      renderer.renderLines(table, 95, 6);
+    });
+    assertThrows(PreconditionViolationException.class, () -> {
+      renderer.renderLines(table, Integer.MAX_VALUE, 1);
+    });
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      table.rowWindow(10, 10).rowOf(10);
+    });
+  }
+
+  /**
+   * Rendering a window of columns produces a table containing exactly those
+   * columns, with their original widths, and rows only as tall as the visible
+   * cells require.
+   */
+
+  @Test
+  public void testRenderColumnWindow()
+    throws Exception
+  {
+    final var table = wideTable(0, 6);
+
+    for (final var renderer : RENDERERS) {
+      assertEquals(
+        renderer.renderLines(table),
+        renderer.renderLines(table.columnWindow(0, 6))
+      );
+      assertEquals(
+        renderer.renderLines(wideTable(1, 3)),
+        renderer.renderLines(table.columnWindow(1, 3))
+      );
+      assertEquals(
+        renderer.renderLines(wideTable(5, 1)),
+        renderer.renderLines(table.columnWindow(5, 1))
+      );
+      assertEquals(
+        renderer.renderLines(wideTable(2, 2).rowWindow(1, 1)),
+        renderer.renderLines(table.columnWindow(2, 2).rowWindow(1, 1))
+      );
+    }
+
+    assertEquals(6, table.rowOf(0).height());
+    assertEquals(1, table.columnWindow(1, 5).rowOf(0).height());
+    assertEquals(18, table.columnWindow(1, 3).contentWidth());
+
+    assertThrows(PreconditionViolationException.class, () -> {
+      table.columnWindow(4, 3);
+    });
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      table.columnWindow(1, 2).rowOf(0).cellContentRaw(2);
+    });
+  }
+
+  /**
+   * CSV fields are quoted exactly once, and only when required in the
+   * minimal quoting mode.
+   */
+
+  @Test
+  public void testCSVQuoting()
+    throws Exception
+  {
+    final var table = csvTable();
+
+    assertEquals(
+      List.of(
+        "\"Name\",\"Quote \"\"Q\"\"\"",
+        "\"a,b\",\"\"\"x\"\" y\"",
+        "\"plain\",\"\""
+      ),
+      Tabla.csvRenderer().renderLines(table)
+    );
+
+    final var minimal =
+      TCSVConfiguration.defaults()
+        .withQuoting(TCSVQuoting.QUOTE_MINIMAL);
+
+    assertEquals(
+      List.of(
+        "Name,\"Quote \"\"Q\"\"\"",
+        "\"a,b\",\"\"\"x\"\" y\"",
+        "plain,"
+      ),
+      Tabla.csvRenderer(minimal).renderLines(table)
+    );
+
+    assertEquals(
+      List.of(
+        "Name;\"Quote \"\"Q\"\"\"",
+        "a,b;\"\"\"x\"\" y\"",
+        "plain;"
+      ),
+      Tabla.csvRenderer(minimal.withDelimiter(';')).renderLines(table)
+    );
+
+    assertSame(
+      Tabla.csvRenderer(),
+      Tabla.csvRenderer(TCSVConfiguration.defaults())
+    );
+    assertThrows(PreconditionViolationException.class, () -> {
+      TCSVConfiguration.defaults().withDelimiter('"');
+    });
+  }
+
+  /**
+   * Rendering to an output produces the same lines as rendering to a list,
+   * each followed by the renderer's line separator.
+   */
+
+  @Test
+  public void testRenderToOutput()
+    throws Exception
+  {
+    final var table = largeTable(1, 20);
+
+    for (final var renderer : RENDERERS) {
+      final var output = new StringBuilder();
+      renderer.render(table, output);
+
+      final var separator =
+        renderer == Tabla.csvRenderer() ? "\r\n" : "\n";
+      final var expected = new StringBuilder();
+      for (final var line : renderer.renderLines(table)) {
+        expected.append(line);
+        expected.append(separator);
+      }
+      assertEquals(expected.toString(), output.toString());
+    }
+
+    final var output = new StringBuilder();
+    Tabla.csvRenderer(TCSVConfiguration.defaults().withRecordSeparator("\n"))
+      .render(csvTable(), output);
+    assertEquals(
+      "\"Name\",\"Quote \"\"Q\"\"\"\n\"a,b\",\"\"\"x\"\" y\"\n\"plain\",\"\"\n",
+      output.toString()
+    );
+  }
+
+  /**
+   * Markdown tables escape pipes and backslashes, and emit the alignment
+   * markers of the declared column alignments.
+   */
+
+  @Test
+  public void testMarkdown()
+    throws Exception
+  {
+    final var table = markdownTable();
+
+    assertEquals(
+      List.of(
+        "| Name | Value \\| Pipe |",
+        "| :--- | ---: |",
+        "| a\\|b | c\\\\d |",
+        "| line one line two |  |"
+      ),
+      Tabla.markdownRenderer().renderLines(table)
+    );
+
+    assertEquals(
+      List.of(),
+      Tabla.markdownRenderer().renderLines(Tabla.builder().build())
+    );
+  }
+
+  /**
+   * HTML tables escape markup characters, and can be restricted to a window
+   * of rows.
+   */
+
+  @Test
+  public void testHTML()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name")
+        .declareColumn("<Value>");
+
+    builder.addRow()
+      .addCell("a & b")
+      .addCell("\"quoted\" 'single'");
+    builder.addRow()
+      .addCell("plain")
+      .addCell("");
+
+    final var table = builder.build();
+
+    assertEquals(
+      List.of(
+        "<table>",
+        "<thead>",
+        "<tr><th>Name</th><th>&lt;Value&gt;</th></tr>",
+        "</thead>",
+        "<tbody>",
+        "<tr><td>a &amp; b</td><td>&quot;quoted&quot; &#39;single&#39;</td></tr>",
+        "<tr><td>plain</td><td></td></tr>",
+        "</tbody>",
+        "</table>"
+      ),
+      Tabla.htmlRenderer().renderLines(table)
+    );
+
+    final var output = new StringBuilder();
+    Tabla.htmlRenderer().render(table, 1, 1, output);
+    assertEquals(
+      String.join(
+        "\n",
+        "<table>",
+        "<thead>",
+        "<tr><th>Name</th><th>&lt;Value&gt;</th></tr>",
+        "</thead>",
+        "<tbody>",
+        "<tr><td>plain</td><td></td></tr>",
+        "</tbody>",
+        "</table>",
+        ""
+      ),
+      output.toString()
+    );
+  }
+
+  /**
+   * TSV and JSON Lines output escapes field contents, and can be produced
+   * from tables that were built without solving any constraints.
+   */
+
+  @Test
+  public void testTSVAndJSONLines()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name")
+        .declareColumn("Quote \"Q\"");
+
+    builder.addRow()
+      .addCell("a\tb")
+      .addCell("back\\slash");
+    builder.addRow()
+      .addCell("line one\nline two")
+      .addCell("x\u0001y");
+
+    final var table = builder.buildUnformatted();
+    assertEquals(0, table.columnOf(0).width());
+
+    assertEquals(
+      List.of(
+        "Name\tQuote \"Q\"",
+        "a\\tb\tback\\\\slash",
+        "line one\\nline two\tx\u0001y"
+      ),
+      Tabla.tsvRenderer().renderLines(table)
+    );
+
+    assertEquals(
+      List.of(
+        "{\"Name\":\"a\\tb\",\"Quote \\\"Q\\\"\":\"back\\\\slash\"}",
+        "{\"Name\":\"line one\\nline two\",\"Quote \\\"Q\\\"\":\"x\\u0001y\"}"
+      ),
+      Tabla.jsonLinesRenderer().renderLines(table)
+    );
+
+    assertEquals(
+      Tabla.csvRenderer().renderLines(builder.build()),
+      Tabla.csvRenderer().renderLines(table)
+    );
+  }
+
+  /**
+   * Styled cells are surrounded by SGR sequences without affecting the
+   * layout of the table.
+   */
+
+  @Test
+  public void testStyled()
+    throws Exception
+  {
+    final var table = smallTable();
+    final var plain = Tabla.framedUnicodeRenderer().renderLines(table);
+
+    assertEquals(
+      plain,
+      Tabla.framedUnicodeRendererStyled(TTableStyleType.none())
+        .renderLines(table)
+    );
+
+    final var alert =
+      TCellStyle.none()
+        .withForeground(RED)
+        .withBold(true);
+
+    final TTableStyleType styles = (t, row, column) -> {
+      if (t.rowOf(row).cellContentRaw(0).startsWith("HDMI") && column == 1) {
+        return alert;
+      }
+      return TCellStyle.none();
+    };
+
+    final var styled =
+      Tabla.framedUnicodeRendererStyled(styles)
+        .renderLines(table);
+
+    assertEquals(
+      "│ HDMI │ \u001b[1;31mA 3m HDMI   \u001b[0m │",
+      styled.get(7)
+    );
+    assertEquals(plain, stripSGR(styled));
+
+    final var byColumn =
+      Tabla.framedASCIIRendererStyled(
+        TTableStyleType.byColumn(
+          List.of(TCellStyle.none().withBackground(BLUE))
+        )
+      ).renderLines(table);
+
+    assertEquals(
+      "| \u001b[44mName\u001b[0m | Description  |",
+      byColumn.get(1)
+    );
+    assertEquals(
+      Tabla.framedASCIIRenderer().renderLines(table),
+      stripSGR(byColumn)
+    );
+  }
+
+  private static List<String> stripSGR(
+    final List<String> lines)
+  {
+    return lines.stream()
+      .map(line -> line.replaceAll("\u001b\\[[0-9;]*m", ""))
+      .toList();
+  }
+
+  /**
+   * Columns are aligned while padding, and decimal columns align their
+   * decimal points.
+   */
+
+  @Test
+  public void testColumnAlignment()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Item", exactWidth(6), LEFT)
+        .declareColumn("Qty", exactWidth(5), RIGHT)
+        .declareColumn("Mid", exactWidth(5), CENTER)
+        .declareColumn("Price", exactWidth(8), DECIMAL);
+
+    builder.addRow()
+      .addCell("a")
+      .addCell("1")
+      .addCell("x")
+      .addCell("3.5");
+    builder.addRow()
+      .addCell("bb")
+      .addCell("100")
+      .addCell("yy")
+      .addCell("12.25");
+    builder.addRow()
+      .addCell("c")
+      .addCell("7")
+      .addCell("z")
+      .addCell("100");
+
+    final var table = builder.build();
+    assertEquals(List.of("3.5"), table.rowOf(0).cellContentFormatted(3));
+    assertEquals(DECIMAL, table.columnOf(3).alignment());
+
+    final var lines =
+      Tabla.framedUnicodeRenderer()
+        .renderLines(table);
+
+    assertEquals("│ Item   │   Qty │  Mid  │    Price │", lines.get(1));
+    assertEquals("│ a      │     1 │   x   │     3.5  │", lines.get(3));
+    assertEquals("│ bb     │   100 │  yy   │    12.25 │", lines.get(5));
+    assertEquals("│ c      │     7 │   z   │   100    │", lines.get(7));
+
+    assertEquals(
+      "| :--- | ---: | :---: | ---: |",
+      Tabla.markdownRenderer()
+        .renderLines(table)
+        .get(1)
+    );
+  }
+
+  /**
+   * Decimal columns are wide enough for the widest integer part and the
+   * widest fractional part together, even when no single cell has both.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColumnAlignmentDecimalWidth()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("N", atLeastContent(), DECIMAL);
+
+    builder.addRow().addCell("1000");
+    builder.addRow().addCell("0.25");
+    builder.addRow().addCell("12.5");
+
+    final var table = builder.build();
+    assertEquals(7, table.columnOf(0).width());
+
+    final var lines =
+      Tabla.framedASCIIRenderer()
+        .renderLines(table);
+
+    assertEquals("|       N |", lines.get(1));
+    assertEquals("| 1000    |", lines.get(3));
+    assertEquals("|    0.25 |", lines.get(5));
+    assertEquals("|   12.5  |", lines.get(7));
+  }
+
+  /**
+   * Filtered views of decimal columns are sized and aligned for the
+   * integer and fractional parts of the rows that they contain.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColumnAlignmentDecimalFiltered()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("N", atLeastContent(), DECIMAL);
+
+    builder.addRow().addCell("123456");
+    builder.addRow().addCell("0.25");
+    builder.addRow().addCell("7");
+
+    final var renderer = Tabla.framedASCIIRenderer();
+    final var table = builder.build();
+    assertEquals(9, table.columnOf(0).width());
+
+    final var large =
+      table.filter(row -> !row.cellContentRaw(0).equals("7"));
+    final var largeLines = renderer.renderLines(large);
+    assertEquals(9, large.columnOf(0).width());
+    assertEquals("| 123456    |", largeLines.get(3));
+    assertEquals("|      0.25 |", largeLines.get(5));
+
+    final var small =
+      table.filter(row -> !row.cellContentRaw(0).equals("123456"));
+    final var smallLines = renderer.renderLines(small);
+    assertEquals(4, small.columnOf(0).width());
+    assertEquals("| 0.25 |", smallLines.get(3));
+    assertEquals("| 7    |", smallLines.get(5));
+  }
+
+  /**
+   * Differential rendering produces the same screen as a full rendering,
+   * and writes nothing but a cursor movement for unchanged tables.
+   */
+
+  @Test
+  public void testDifferential()
+    throws Exception
+  {
+    final var renderer = Tabla.framedUnicodeRenderer();
+    final var differential = Tabla.framedUnicodeDifferentialRenderer();
+
+    final var base = statusTable("up", "up", "up");
+    final var output = new StringBuilder();
+    differential.renderChanges(base, statusTable("up", "up", "up"), output);
+    assertEquals("\r", output.toString());
+
+    final var changed = statusTable("up", "down", "up");
+    output.setLength(0);
+    differential.renderChanges(base, changed, output);
+    assertEquals(
+      "\u001b[4A\r│ b    │ down   │\u001b[4B\r",
+      output.toString()
+    );
+
+    final var tables = List.of(
+      changed,
+      statusTable("up", "a much longer status", "up"),
+      statusTable("up", "up"),
+      statusTable("up", "up", "up", "down"),
+      Tabla.builder().declareColumn("Other").build()
+    );
+
+    for (final var next : tables) {
+      final var screen = new StringBuilder();
+      renderer.render(base, screen);
+      differential.renderChanges(base, next, screen);
+
+      final var expected = new StringBuilder();
+      renderer.render(next, expected);
+      assertEquals(
+        emulateTerminal(expected),
+        emulateTerminal(screen)
+      );
+    }
+
+    /*
+     * A wider fractional part in one row moves the decimal points of the
+     * unchanged rows.
+     */
+
+    final var pricesBase = priceTable(1.5, 2.5);
+    final var pricesNext = priceTable(1.5, 2.25);
+    final var screen = new StringBuilder();
+    renderer.render(pricesBase, screen);
+    differential.renderChanges(pricesBase, pricesNext, screen);
+
+    final var expected = new StringBuilder();
+    renderer.render(pricesNext, expected);
+    final var expectedLines = emulateTerminal(expected);
+    assertEquals("│     1.5  │", expectedLines.get(3));
+    assertEquals(expectedLines, emulateTerminal(screen));
+  }
+
+  private static TTableType priceTable(
+    final double... prices)
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Price", exactWidth(8), DECIMAL);
+
+    for (final var price : prices) {
+      builder.addRow().addCell(price);
+    }
+    return builder.build();
+  }
+
+  private static TTableType statusTable(
+    final String... statuses)
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Host", exactWidth(4))
+        .declareColumn("Status", exactWidth(6));
+
+    for (int index = 0; index < statuses.length; ++index) {
+      builder.addRow()
+        .addCell(Character.toString('a' + index))
+        .addCell(statuses[index]);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Apply text to a simple terminal that understands the cursor movement
+   * and erase sequences used by the differential renderers.
+   */
+
+  private static List<String> emulateTerminal(
+    final CharSequence text)
+  {
+    final var screen = new ArrayList<StringBuilder>();
+    screen.add(new StringBuilder());
+    var line = 0;
+    var column = 0;
+
+    for (int index = 0; index < text.length(); ++index) {
+      final var c = text.charAt(index);
+      if (c == '\u001b') {
+        var end = index + 2;
+        while (Character.isDigit(text.charAt(end))) {
+          ++end;
+        }
+        final var count =
+          end > index + 2 ? Integer.parseInt(text, index + 2, end, 10) : 0;
+        switch (text.charAt(end)) {
+          case 'A' -> line -= count;
+          case 'B' -> line += count;
+          case 'K' -> screen.get(line).setLength(column);
+          case 'J' -> {
+            screen.get(line).setLength(column);
+            while (screen.size() > line + 1) {
+              screen.remove(screen.size() - 1);
+            }
+          }
+          default -> throw new IllegalStateException();
+        }
+        index = end;
+      } else if (c == '\r') {
+        column = 0;
+      } else if (c == '\n') {
+        column = 0;
+        ++line;
+        if (line == screen.size()) {
+          screen.add(new StringBuilder());
+        }
+      } else {
+        final var current = screen.get(line);
+        if (column < current.length()) {
+          current.setCharAt(column, c);
+        } else {
+          current.append(c);
+        }
+        ++column;
+      }
+    }
+    return screen.stream().map(StringBuilder::toString).toList();
+  }
+
+  /**
+   * Memoised renderers produce the same output as their delegates, and
+   * return cached output for repeated renders.
+   */
+
+  @Test
+  public void testMemoised()
+    throws Exception
+  {
+    final var table = largeTable(3, 20);
+
+    for (final var renderer : RENDERERS) {
+      for (final var memoised : List.of(
+        Tabla.memoisedRenderer(renderer),
+        Tabla.memoisedRendererSoft(renderer))) {
+        final var lines = memoised.renderLines(table);
+        assertEquals(renderer.renderLines(table), lines);
+        assertSame(lines, memoised.renderLines(table));
+
+        final var expected = new StringBuilder();
+        renderer.render(table, expected);
+        for (int index = 0; index < 2; ++index) {
+          final var output = new StringBuilder();
+          memoised.render(table, output);
+          assertEquals(expected.toString(), output.toString());
+        }
+
+        assertEquals(
+          renderer.renderLines(table, 2, 3),
+          memoised.renderLines(table, 2, 3)
+        );
+      }
+    }
+  }
+
+  /**
+   * Frameless renderers produce aligned columns without frames, and are
+   * smaller than the framed output.
+   */
+
+  @Test
+  public void testFrameless()
+    throws Exception
+  {
+    final var table = smallTable();
+
+    assertEquals(
+      List.of(
+        "Name  Description",
+        "Bat-  A 9v",
+        "ter-  battery.",
+        "y",
+        "HDMI  A 3m HDMI",
+        "3m    cable."
+      ),
+      Tabla.framelessRenderer().renderLines(table)
+    );
+
+    assertEquals(
+      "----  ------------",
+      Tabla.framelessRendererUnderlined()
+        .renderLines(table)
+        .get(1)
+    );
+
+    final var large = largeTable(4, 200);
+    final var framed = new StringBuilder();
+    Tabla.framedUnicodeRenderer().render(large, framed);
+    final var frameless = new StringBuilder();
+    Tabla.framelessRendererUnderlined().render(large, frameless);
+    assertTrue(frameless.length() < framed.length());
+  }
+
+  /**
+   * Expanded renderers produce a block of lines per row, wrapping only the
+   * values.
+   */
+
+  @Test
+  public void testExpanded()
+    throws Exception
+  {
+    final var expected =
+      List.of(
+        "-[ RECORD 1 ]-----------",
+        "Name        | Battery",
+        "Description | A 9v",
+        "            | battery.",
+        "-[ RECORD 2 ]-----------",
+        "Name        | HDMI 3m",
+        "Description | A 3m HDMI",
+        "            | cable."
+      );
+
+    assertEquals(
+      expected,
+      Tabla.expandedRenderer(24).renderLines(smallTable())
+    );
+
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name")
+        .declareColumn("Description");
+    builder.addRow()
+      .addCell("Battery")
+      .addCell("A 9v battery.");
+    builder.addRow()
+      .addCell("HDMI 3m")
+      .addCell("A 3m HDMI cable.");
+
+    assertEquals(
+      expected,
+      Tabla.expandedRenderer(24).renderLines(builder.buildUnformatted())
+    );
+
+    assertThrows(
+      PreconditionViolationException.class,
+      () -> Tabla.expandedRenderer(0)
+    );
+  }
+
+  /**
+   * A header wider than the maximum width leaves values two characters
+   * wide, so that long values can still be hyphenated.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExpandedHeaderWiderThanMaximum()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("A Very Long Header Name");
+    builder.addRow()
+      .addCell("abc");
+
+    final var lines =
+      assertTimeoutPreemptively(
+        Duration.ofSeconds(10L),
+        () -> Tabla.expandedRenderer(20).renderLines(builder.build())
+      );
+
+    assertEquals(
+      List.of(
+        "-[ RECORD 1 ]---------------",
+        "A Very Long Header Name | a-",
+        "                        | b-",
+        "                        | c"
+      ),
+      lines
+    );
+  }
+
+  private static TTableType markdownTable()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name")
+        .declareColumn("Value | Pipe", atLeastContentOrHeader(), RIGHT);
+
+    builder.addRow()
+      .addCell("a|b")
+      .addCell("c\\d");
+    builder.addRow()
+      .addCell("line one\nline two")
+      .addCell("");
+    return builder.build();
+  }
+
+  private static TTableType csvTable()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name")
+        .declareColumn("Quote \"Q\"");
+
+    builder.addRow()
+      .addCell("a,b")
+      .addCell("\"x\" y");
+    builder.addRow()
+      .addCell("plain")
+      .addCell("");
+    return builder.build();
+  }
+
+  private static TTableType wideTable(
+    final int firstColumn,
+    final int columnCount)
+    throws Exception
+  {
+    final var builder = Tabla.builder();
+    for (int index = firstColumn; index < firstColumn + columnCount; ++index) {
+      builder.declareColumn("C%d".formatted(index), exactWidth(4 + index));
+    }
+    for (int row = 0; row < 3; ++row) {
+      final var rowBuilder = builder.addRow();
+      for (int index = firstColumn; index < firstColumn + columnCount; ++index) {
+        if (index == 0) {
+          rowBuilder.addCell("A long cell that wraps.");
+        } else {
+          rowBuilder.addCell("R%dC%d".formatted(row, index));
+        }
+      }
+    }
+    return builder.build();
+  }
+
+  private static TTableType smallTable()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name", exactWidth(4))
+        .declareColumn("Description", exactWidth(12));
+
+    builder.addRow()
+      .addCell("Battery")
+      .addCell("A 9v battery.");
+
+    builder.addRow()
+      .addCell("HDMI 3m")
+      .addCell("A 3m HDMI cable.");
+
+    return builder.build();
+  }
+
+  private static TTableType largeTable(
+    final int seed,
+    final int rows)
+    throws Exception
+  {
+    return largeTableRows(seed, 0, rows);
+  }
+
+  private static TTableType largeTableRows(
+    final int seed,
+    final int firstRow,
+    final int rows)
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("ID", exactWidth(6))
+        .declareColumn("Name", exactWidth(8 + seed))
+        .declareColumn("Description", exactWidth(20));
+
+    for (int index = firstRow; index < firstRow + rows; ++index) {
+      builder.addRow()
+        .addCell(Integer.toString(index * seed))
+        .addCell("Item %d of table %d".formatted(index, seed))
+        .addCell("A \"description\", of item %d.".formatted(index));
+    }
+    return builder.build();
+  }
+}
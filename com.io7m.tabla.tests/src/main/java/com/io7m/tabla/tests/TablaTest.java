@@ -17,8 +17,14 @@
 
 package com.io7m.tabla.tests;
 
+import com.io7m.tabla.core.TCellStorage;
+import com.io7m.tabla.core.TColumnAlignment;
 import com.io7m.tabla.core.TConstraintHardness;
 import com.io7m.tabla.core.TException;
+import com.io7m.tabla.core.TNumberFormatType;
+import com.io7m.tabla.core.TSortComparison;
+import com.io7m.tabla.core.TSortKey;
+import com.io7m.tabla.core.TTableLayout;
 import com.io7m.tabla.core.TTableType;
 import com.io7m.tabla.core.Tabla;
 import org.junit.jupiter.api.Disabled;
@@ -26,9 +32,17 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.CharBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import static com.io7m.tabla.core.TColumnWidthConstraint.any;
 import static com.io7m.tabla.core.TColumnWidthConstraint.atLeastContent;
 import static com.io7m.tabla.core.TColumnWidthConstraint.atLeastContentOrHeader;
+import static com.io7m.tabla.core.TColumnWidthConstraint.atLeastContentPercentile;
 import static com.io7m.tabla.core.TColumnWidthConstraint.atLeastHeader;
 import static com.io7m.tabla.core.TColumnWidthConstraint.exactWidth;
 import static com.io7m.tabla.core.TColumnWidthConstraintMinimumFitContentOrHeader.fitContentOrHeader;
@@ -37,7 +51,10 @@ import static com.io7m.tabla.core.TConstraintHardness.SOFT_CONSTRAINT;
 import static com.io7m.tabla.core.TTableWidthConstraintType.tableWidthAtMost;
 import static com.io7m.tabla.core.TTableWidthConstraintType.tableWidthExact;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class TablaTest
 {
@@ -431,6 +448,591 @@ public final class TablaTest
     assertEquals(3, table.rowCount());
   }
 
+  /**
+   * Rows added in bulk produce the same table as rows added cell by cell,
+   * and have their cell counts validated immediately. A row with a null
+   * cell is rejected without adding any part of it.
+   */
+
+  @Test
+  public void testBulkRows()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name", atLeastContentOrHeader())
+        .declareColumn("Description", atLeastContentOrHeader());
+
+    builder.addRow("Battery", " A 9v battery. ");
+    builder.addRow(List.of("HDMI 3m", "A 3m HDMI cable."));
+    builder.addRows(
+      List.of(
+        List.of("Screen Cleaner", "A bottle of isopropyl alcohol.")
+      )
+    );
+
+    final var table = builder.build();
+    showTable(table);
+    assertEquals(44, table.contentWidth());
+    assertEquals(3, table.rowCount());
+    assertEquals("A 9v battery.", table.rowOf(0).cellContentRaw(1));
+
+    final var exMany =
+      assertThrows(TException.class, () -> builder.addRow("A", "B", "C"));
+    assertEquals("error-too-many-cells", exMany.errorCode());
+
+    final var exFew =
+      assertThrows(TException.class, () -> builder.addRow("A"));
+    assertEquals("error-too-few-cells", exFew.errorCode());
+
+    assertThrows(
+      NullPointerException.class,
+      () -> builder.addRow(Arrays.asList("A", null))
+    );
+    assertEquals(3, builder.build().rowCount());
+  }
+
+  /**
+   * Numeric cells are formatted using the number format of their column,
+   * and the column widths are derived from the formatted lengths.
+   */
+
+  @Test
+  public void testNumericCells()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Item", atLeastContentOrHeader())
+        .declareColumn("Count", atLeastContent(), TColumnAlignment.RIGHT)
+        .declareColumn(
+          "Price",
+          atLeastContent(),
+          TColumnAlignment.DECIMAL,
+          TNumberFormatType.fixed(2)
+        );
+
+    builder.addRow()
+      .addCell("Battery")
+      .addCell(3L)
+      .addCell(3.14159);
+    builder.addRow()
+      .addCell("Cable")
+      .addCell(-1200L)
+      .addCell(-0.001);
+    builder.addRow()
+      .addCell("Cleaner")
+      .addCell(Long.MIN_VALUE)
+      .addCell(1234.5);
+
+    final var table = builder.build();
+    showTable(table);
+
+    assertEquals(7, table.columnOf(0).width());
+    assertEquals(20, table.columnOf(1).width());
+    assertEquals(7, table.columnOf(2).width());
+
+    assertEquals("3", table.rowOf(0).cellContentRaw(1));
+    assertEquals("3.14", table.rowOf(0).cellContentRaw(2));
+    assertEquals("-1200", table.rowOf(1).cellContentRaw(1));
+    assertEquals("0.00", table.rowOf(1).cellContentRaw(2));
+    assertEquals(
+      Long.toString(Long.MIN_VALUE),
+      table.rowOf(2).cellContentRaw(1)
+    );
+    assertEquals("1234.50", table.rowOf(2).cellContentRaw(2));
+
+    final var lines =
+      Tabla.framedASCIIRenderer()
+        .renderLines(table);
+
+    assertEquals(
+      "| Battery |                    3 |    3.14 |",
+      lines.get(3)
+    );
+    assertEquals(
+      "| Cable   |                -1200 |    0.00 |",
+      lines.get(5)
+    );
+
+    final var fixed = TNumberFormatType.fixed(2);
+    final var values = List.of(
+      Map.entry(1.005, "1.01"),
+      Map.entry(2.675, "2.68"),
+      Map.entry(-2.675, "-2.68"),
+      Map.entry(9.995, "10.00"),
+      Map.entry(0.125, "0.13"),
+      Map.entry(1.004, "1.00"),
+      Map.entry(123456789012.345, "123456789012.35")
+    );
+    for (final var entry : values) {
+      final var value = entry.getKey().doubleValue();
+      assertEquals(entry.getValue(), fixed.format(value));
+      assertEquals(entry.getValue().length(), fixed.lengthOf(value));
+    }
+  }
+
+  /**
+   * Cells can be added from arbitrary character sequences, and are trimmed
+   * in the same way as strings.
+   */
+
+  @Test
+  public void testCharSequenceCells()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name", atLeastContentOrHeader())
+        .declareColumn("Description", atLeastContentOrHeader());
+
+    final var buffer =
+      CharBuffer.wrap("xx  Battery \t A 9v battery.\n");
+
+    builder.addRow()
+      .addCell(buffer.slice(2, 10))
+      .addCell(buffer.slice(13, 15));
+    builder.addRow()
+      .addCell(new StringBuilder("HDMI 3m"))
+      .addCell(CharBuffer.wrap(" \t "));
+
+    final var table = builder.build();
+    showTable(table);
+    assertEquals("Battery", table.rowOf(0).cellContentRaw(0));
+    assertEquals("A 9v battery.", table.rowOf(0).cellContentRaw(1));
+    assertEquals("HDMI 3m", table.rowOf(1).cellContentRaw(0));
+    assertEquals("", table.rowOf(1).cellContentRaw(1));
+  }
+
+  /**
+   * A builder can build repeatedly, and can be cleared and refilled.
+   */
+
+  @Test
+  public void testReuse()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name", atLeastContentOrHeader())
+        .declareColumn("Description", atLeastContentOrHeader());
+
+    builder.addRow("Battery", "A 9v battery.");
+
+    final var table0 = builder.build();
+    final var table1 = builder.build();
+    assertEquals(20, table0.contentWidth());
+    assertEquals(table0.contentWidth(), table1.contentWidth());
+    assertEquals(1, table1.rowCount());
+
+    builder.clearRows();
+    assertEquals(0, builder.build().rowCount());
+
+    for (int index = 0; index < 40; ++index) {
+      builder.addRow("HDMI 3m", "A 3m HDMI cable.");
+    }
+
+    final var table2 = builder.build();
+    showTable(table2);
+    assertEquals(23, table2.contentWidth());
+    assertEquals(40, table2.rowCount());
+    assertEquals("HDMI 3m", table2.rowOf(39).cellContentRaw(0));
+    assertEquals("Battery", table0.rowOf(0).cellContentRaw(0));
+  }
+
+  /**
+   * A layout solved once can be applied to new data without solving.
+   */
+
+  @Test
+  public void testLayout()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name", atLeastContentOrHeader())
+        .declareColumn("Description", atLeastContentOrHeader());
+
+    builder.addRow("Battery", "A 9v battery.");
+
+    final var layout = TTableLayout.of(builder.build());
+    assertEquals(List.of(7, 13), layout.columnWidths());
+    assertEquals(20, layout.contentWidth());
+
+    builder.clearRows();
+    builder.addRow("HDMI 3m", "A 3m HDMI cable.");
+
+    final var table = builder.buildWithLayout(layout);
+    showTable(table);
+    assertEquals(20, table.contentWidth());
+    assertEquals(
+      List.of("A 3m HDMI", "cable."),
+      table.rowOf(0).cellContentFormatted(1)
+    );
+
+    final var exWide =
+      assertThrows(TException.class, () -> {
+        builder.buildWithLayout(layout, HARD_CONSTRAINT);
+      });
+    showException(exWide);
+    assertEquals("error-layout-content-too-wide", exWide.errorCode());
+
+    final var exCount =
+      assertThrows(TException.class, () -> {
+        builder.buildWithLayout(new TTableLayout(List.of(10)));
+      });
+    showException(exCount);
+    assertEquals("error-layout-column-count", exCount.errorCode());
+  }
+
+  /**
+   * Builders with capacity hints grow past their hints.
+   */
+
+  @Test
+  public void testCapacityHints()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder(0, 0)
+        .declareColumn("A", atLeastContentOrHeader())
+        .declareColumn("B", atLeastContentOrHeader())
+        .declareColumn("C", atLeastContentOrHeader());
+
+    for (int index = 0; index < 100; ++index) {
+      builder.addRow()
+        .addCell(Integer.toString(index))
+        .addCell(index)
+        .addCell("x");
+    }
+
+    final var table = builder.build();
+    assertEquals(100, table.rowCount());
+    assertEquals(3, table.columnCount());
+    assertEquals("99", table.rowOf(99).cellContentRaw(0));
+    assertEquals("99", table.rowOf(99).cellContentRaw(1));
+
+    assertEquals(
+      4,
+      Tabla.builder(1000)
+        .declareColumn("Name")
+        .build()
+        .columnOf(0)
+        .width()
+    );
+  }
+
+  /**
+   * Views of tables share their rows and re-solve their column widths.
+   */
+
+  @Test
+  public void testViews()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name", atLeastContentOrHeader())
+        .declareColumn("Description", atLeastContentOrHeader())
+        .declareColumn("Quantity", atLeastContentOrHeader());
+
+    builder.addRow("Battery", "A 9v battery.", "23");
+    builder.addRow("Screen Cleaner", "A bottle of isopropyl alcohol.", "1");
+    builder.addRow("HDMI 3m", "A 3m HDMI cable.", "2");
+
+    final var table = builder.build();
+    assertEquals(52, table.contentWidth());
+
+    final var reordered = table.reorder(2, 0, 1);
+    showTable(reordered);
+    assertEquals(52, reordered.contentWidth());
+    assertSame(table.rowOf(2), reordered.rowOf(0));
+    assertSame(table.rowOf(1), reordered.rowOf(2));
+
+    final var filtered =
+      table.filter(row -> row.cellContentRaw(0).length() < 10);
+    showTable(filtered);
+    assertEquals(2, filtered.rowCount());
+    assertEquals(31, filtered.contentWidth());
+    assertEquals("HDMI 3m", filtered.rowOf(1).cellContentRaw(0));
+
+    final var projected = filtered.project(2, 0);
+    showTable(projected);
+    assertEquals(2, projected.columnCount());
+    assertEquals("Quantity", projected.columnOf(0).headerContentRaw());
+    assertEquals(15, projected.contentWidth());
+    assertEquals("23", projected.rowOf(0).cellContentRaw(0));
+    assertEquals("Battery", projected.rowOf(0).cellContentRaw(1));
+
+    final var windowed = table.rowWindow(1, 2).reorder(1);
+    assertEquals(52, windowed.contentWidth());
+    assertEquals("HDMI 3m", windowed.rowOf(0).cellContentRaw(0));
+  }
+
+  /**
+   * Rows can be sorted by several keys with different comparisons.
+   */
+
+  @Test
+  public void testSort()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name", atLeastContentOrHeader())
+        .declareColumn("Size", atLeastContentOrHeader());
+
+    builder.addRow().addCell("file10").addCell(3L);
+    builder.addRow().addCell("file9").addCell(10L);
+    builder.addRow().addCell("file009b").addCell(3L);
+    builder.addRow().addCell("File1").addCell(-2.5);
+    builder.addRow().addCell("file9a").addCell("unknown");
+
+    final var table = builder.build();
+
+    final var natural =
+      table.sort(TSortKey.ascending(0, TSortComparison.NATURAL));
+    showTable(natural);
+    assertEquals(
+      List.of("File1", "file9", "file9a", "file009b", "file10"),
+      columnContent(natural, 0)
+    );
+    assertSame(table.rowOf(3), natural.rowOf(0));
+    assertEquals(table.contentWidth(), natural.contentWidth());
+
+    final var lexical =
+      table.sort(TSortKey.ascending(0, TSortComparison.LEXICAL));
+    assertEquals(
+      List.of("File1", "file009b", "file10", "file9", "file9a"),
+      columnContent(lexical, 0)
+    );
+
+    final var bySize =
+      table.sort(
+        TSortKey.descending(1, TSortComparison.NUMERIC),
+        TSortKey.descending(0, TSortComparison.NATURAL)
+      );
+    assertEquals(
+      List.of("file9a", "file9", "file10", "file009b", "File1"),
+      columnContent(bySize, 0)
+    );
+  }
+
+  /**
+   * Large tables are sorted in parallel, and the sort is stable.
+   */
+
+  @Test
+  public void testSortLarge()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder(50_000)
+        .declareColumn("Key", atLeastContentOrHeader())
+        .declareColumn("Index", atLeastContentOrHeader());
+
+    for (int index = 0; index < 50_000; ++index) {
+      builder.addRow()
+        .addCell((index * 7919L) % 101L)
+        .addCell(index);
+    }
+
+    final var sorted =
+      builder.buildUnformatted()
+        .sort(TSortKey.ascending(0, TSortComparison.NUMERIC));
+
+    assertEquals(50_000, sorted.rowCount());
+    for (int index = 1; index < sorted.rowCount(); ++index) {
+      final var k0 = Long.parseLong(sorted.rowOf(index - 1).cellContentRaw(0));
+      final var k1 = Long.parseLong(sorted.rowOf(index).cellContentRaw(0));
+      final var i0 = Long.parseLong(sorted.rowOf(index - 1).cellContentRaw(1));
+      final var i1 = Long.parseLong(sorted.rowOf(index).cellContentRaw(1));
+      assertTrue(k0 < k1 || (k0 == k1 && i0 < i1));
+    }
+  }
+
+  /**
+   * Numeric sorting compares long values exactly, including values above
+   * 2^53 that have no exact double representation.
+   */
+
+  @Test
+  public void testSortLongsExactly()
+    throws Exception
+  {
+    for (final var storage : TCellStorage.values()) {
+      final var builder =
+        Tabla.builder(8, 2, storage)
+          .declareColumn("Name", atLeastContentOrHeader())
+          .declareColumn("Value", atLeastContentOrHeader());
+
+      builder.addRow().addCell("a").addCell(9_007_199_254_740_993L);
+      builder.addRow().addCell("b").addCell(9_007_199_254_740_992L);
+      builder.addRow().addCell("c").addCell("unknown");
+      builder.addRow().addCell("d").addCell(9_007_199_254_740_994.0);
+      builder.addRow().addCell("e").addCell("9007199254740991");
+      builder.addRow().addCell("f").addCell(9_007_199_254_740_992.0);
+
+      final var sorted =
+        builder.buildUnformatted()
+          .sort(TSortKey.ascending(1, TSortComparison.NUMERIC));
+
+      assertEquals(
+        List.of("e", "b", "f", "a", "d", "c"),
+        columnContent(sorted, 0)
+      );
+    }
+  }
+
+  /**
+   * A percentile constraint wraps a few outliers instead of widening the
+   * column.
+   */
+
+  @Test
+  public void testFitContentPercentile()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("Name", atLeastContentOrHeader())
+        .declareColumn("Description", atLeastContentPercentile(90.0));
+
+    for (int index = 0; index < 9; ++index) {
+      builder.addRow("Item " + index, "A thing " + index);
+    }
+    builder.addRow(
+      "Item 9",
+      "An unusually long description that would otherwise widen every row."
+    );
+
+    final var table = builder.build();
+    showTable(table);
+    assertEquals(9, table.columnOf(1).width());
+    assertEquals(1, table.rowOf(0).height());
+    assertEquals(10, table.rowOf(9).height());
+
+    final var typical = table.filter(row -> row.height() == 1);
+    assertEquals(9, typical.columnOf(1).width());
+
+    builder.clearRows();
+    builder.addRow("Item", "Short");
+    assertEquals(5, builder.build().columnOf(1).width());
+  }
+
+  /**
+   * A percentile constraint over a skewed distribution can produce a column
+   * one character wide, and such a table can still be rendered.
+   */
+
+  @Test
+  public void testFitContentPercentileSkewed()
+    throws Exception
+  {
+    final var builder =
+      Tabla.builder()
+        .declareColumn("A", atLeastContentPercentile(90.0));
+
+    for (int index = 0; index < 20; ++index) {
+      builder.addRow("Y");
+    }
+    builder.addRow("Maybe");
+
+    final var table = builder.build();
+    assertEquals(1, table.columnOf(0).width());
+
+    final var lines =
+      assertTimeoutPreemptively(
+        Duration.ofSeconds(10L),
+        () -> Tabla.framedASCIIRenderer().renderLines(table)
+      );
+
+    for (final var line : lines) {
+      LOG.debug("{}", line);
+    }
+    assertEquals(
+      List.of("M", "a", "y", "b", "e"),
+      table.rowOf(20).cellContentFormatted(0)
+    );
+    assertEquals(5 + 21 + 20 + 3, lines.size());
+  }
+
+  /**
+   * Tables built with compact storage have the same content and rendering
+   * as tables built with object storage, and sort numerically by their
+   * stored values.
+   */
+
+  @Test
+  public void testCompactStorage()
+    throws Exception
+  {
+    final var objects =
+      Tabla.builder(16, 3, TCellStorage.OBJECTS);
+    final var compact =
+      Tabla.builder(16, 3, TCellStorage.COMPACT);
+
+    for (final var builder : List.of(objects, compact)) {
+      builder.declareColumn("Name", atLeastContentOrHeader());
+      builder.declareColumn("Description", exactWidth(10));
+      builder.declareColumn(
+        "Price",
+        atLeastContentOrHeader(),
+        TColumnAlignment.DECIMAL
+      );
+
+      builder.addRow("Battery", " A 9v battery. ", "1.5");
+      builder.addRow()
+        .addCell(CharBuffer.wrap("  Écran  "))
+        .addCell("日本語の説明")
+        .addCell(23.25);
+      builder.addRow(List.of("HDMI 3m", "", "100"));
+    }
+
+    final var expected = objects.build();
+    final var received = compact.build();
+    assertEquals(expected.contentWidth(), received.contentWidth());
+    assertEquals(
+      Tabla.framedUnicodeRenderer().renderLines(expected),
+      Tabla.framedUnicodeRenderer().renderLines(received)
+    );
+    assertEquals("Écran", received.rowOf(1).cellContentRaw(0));
+    assertEquals("日本語の説明", received.rowOf(1).cellContentRaw(1));
+    assertEquals("23.25", received.rowOf(1).cellContentRaw(2));
+    assertEquals(
+      List.of("HDMI 3m", "Écran", "Battery"),
+      columnContent(
+        received.sort(TSortKey.descending(2, TSortComparison.NUMERIC)),
+        0
+      )
+    );
+
+    compact.clearRows();
+    final var large = "x".repeat(3_000_000);
+    for (int index = 0; index < 30_000; ++index) {
+      compact.addRow("Item " + index, "Description " + index, "0");
+    }
+    compact.addRow("Large", large, "0");
+
+    final var table = compact.buildUnformatted();
+    assertEquals(30_001, table.rowCount());
+    assertEquals("Item 29999", table.rowOf(29_999).cellContentRaw(0));
+    assertEquals("Description 12345", table.rowOf(12_345).cellContentRaw(1));
+    assertEquals(large, table.rowOf(30_000).cellContentRaw(1));
+    assertEquals("Battery", received.rowOf(0).cellContentRaw(0));
+  }
+
+  private static List<String> columnContent(
+    final TTableType table,
+    final int column)
+  {
+    final var results = new ArrayList<String>();
+    for (int index = 0; index < table.rowCount(); ++index) {
+      results.add(table.rowOf(index).cellContentRaw(column));
+    }
+    return results;
+  }
+
   private static void showException(
     final TException ex)
   {
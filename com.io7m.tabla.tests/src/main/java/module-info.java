@@ -32,6 +32,7 @@ open module com.io7m.tabla.tests
   requires org.junit.platform.engine;
   requires org.junit.platform.launcher;
 
+  requires com.io7m.jaffirm.core;
   requires com.io7m.tabla.cmdline;
   requires com.io7m.tabla.core;
 